@@ -0,0 +1,10 @@
+-- ERSTATTET AF FLYWAY: src/main/resources/db/migration/mysql/V2__services_price_ore.sql
+-- Kør ikke dette script mod nye versioner - Flyway kører V2 automatisk ved opstart
+-- Databaser hvor scriptet allerede er kørt manuelt (før deploy af øre-priser, inden Flyway kom til) er
+-- sikre: V2__services_price_ore springer trin over der allerede er udført (price_ore findes / price er fjernet)
+--
+-- Oprindeligt script, til reference:
+-- ALTER TABLE services ADD COLUMN price_ore BIGINT NULL;
+-- UPDATE services SET price_ore = ROUND(price * 100);
+-- ALTER TABLE services MODIFY price_ore BIGINT NOT NULL;
+-- ALTER TABLE services DROP COLUMN price;
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Build-time gzip af static CSS/JS (køres af maven-antrun-plugin i process-resources)
+// Ren JVM - ingen afhængighed af en gzip binary, virker ens på alle OS
+// Fejler buildet hvis der ikke kommer nogen .gz filer ud (EncodedResourceResolver ville ellers aldrig finde dem)
+public class PrecompressStatic {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: PrecompressStatic <static dir>");
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            throw new IllegalStateException("Static directory not found: " + root);
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> file.toString().endsWith(".css") || file.toString().endsWith(".js"))
+                    .toList();
+        }
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No CSS/JS files to precompress in " + root);
+        }
+
+        long before = 0;
+        long after = 0;
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            Path gz = file.resolveSibling(file.getFileName() + ".gz");
+            // GZIPOutputStream skriver mtime=0 i headeren → samme bytes ved hvert build (som gzip -n)
+            try (OutputStream out = new BestGzipOutputStream(Files.newOutputStream(gz))) {
+                out.write(content);
+            }
+            before += content.length;
+            after += Files.size(gz);
+        }
+        System.out.printf("Precompressed %d static files: %d -> %d bytes%n", files.size(), before, after);
+    }
+
+    // Samme niveau som gzip -9
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
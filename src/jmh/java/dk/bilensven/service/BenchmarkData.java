@@ -0,0 +1,82 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.EmployeeSummary;
+import dk.bilensven.dto.ServiceSummary;
+import dk.bilensven.model.Employee;
+import dk.bilensven.model.Service;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Testdata + repository stubs til benchmarks (ingen database, ingen Mockito overhead)
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    // Services med tilfældige navne og priser (fast seed = reproducerbare målinger)
+    static List<Service> services(int size) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Service> services = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Service service = new Service();
+            service.setId((long) i);
+            service.setName("Service " + Integer.toHexString(random.nextInt()));
+            service.setDescription("Beskrivelse af ydelse nummer " + i);
+            service.setPriceOre(random.nextInt(1_000_000));
+            service.setActive(true);
+            service.setCreatedAt(now);
+            service.setUpdatedAt(now);
+            services.add(service);
+        }
+        return services;
+    }
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee employee = new Employee();
+            employee.setId((long) i);
+            employee.setName("Medarbejder " + Integer.toHexString(random.nextInt()));
+            employee.setPosition("Mekaniker");
+            employee.setEmail("medarbejder" + i + "@bilensven.dk");
+            employee.setActive(true);
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    // Samme services som read-only projektioner (det repository'et returnerer til kataloget)
+    static List<ServiceSummary> serviceSummaries(List<Service> services) {
+        return services.stream()
+                .map(s -> new ServiceSummary(s.getId(), s.getName(), s.getDescription(), s.getPriceOre(),
+                        s.isActive(), s.getImageUrl(), s.getCreatedAt(), s.getUpdatedAt(), s.getVersion()))
+                .toList();
+    }
+
+    static List<EmployeeSummary> employeeSummaries(int size) {
+        return employees(size).stream()
+                .map(e -> new EmployeeSummary(e.getId(), e.getName(), e.getPosition(), e.getEmail(),
+                        e.getPhone(), e.getImageUrl(), e.isActive(), e.getCreatedAt(), e.getUpdatedAt(), e.getVersion()))
+                .toList();
+    }
+
+    // Dynamic proxy: findActiveSummaries() returnerer den givne liste, alt andet fejler
+    @SuppressWarnings("unchecked")
+    static <R> R repositoryReturning(Class<R> repositoryType, List<?> activeRows) {
+        return (R) Proxy.newProxyInstance(
+                repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findActiveSummaries")) {
+                        return activeRows;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.EmployeeDTO;
+import dk.bilensven.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Hot path i EmployeeService: stream → sort → map for GET /api/employees
+// Kør: mvn -Pjmh test-compile exec:exec -Djmh.args="EmployeeServiceBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        EmployeeRepository repository =
+                BenchmarkData.repositoryReturning(EmployeeRepository.class, BenchmarkData.employeeSummaries(size));
+        employeeService = new EmployeeService(repository);
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> getAllActive() {
+        return employeeService.getAllActive();
+    }
+}
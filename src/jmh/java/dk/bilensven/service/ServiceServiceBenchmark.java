@@ -0,0 +1,81 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.ServiceDTO;
+import dk.bilensven.model.Money;
+import dk.bilensven.model.Service;
+import dk.bilensven.repository.ServiceRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths i ServiceService: mapping, sortering og prisvalidering
+// Kør: mvn -Pjmh test-compile exec:exec -Djmh.args="ServiceServiceBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceServiceBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    private ServiceService serviceService;
+    private Service service;
+    private ServiceDTO dto;
+    private Double[] prices;
+
+    @Setup
+    public void setUp() {
+        List<Service> services = BenchmarkData.services(size);
+        ServiceRepository repository = BenchmarkData.repositoryReturning(ServiceRepository.class, BenchmarkData.serviceSummaries(services));
+        serviceService = new ServiceService(repository, new ServiceCatalogCache(), new SearchIndex());
+
+        service = services.get(0);
+        dto = serviceService.toDTO(service);
+        prices = services.stream().map(s -> Money.toKroner(s.getPriceOre())).toArray(Double[]::new);
+    }
+
+    // Fuld pipeline: filter → sort (navn + pris) → map (det cache miss koster)
+    @Benchmark
+    public ServiceCatalogCache.Snapshot loadCatalog() {
+        return serviceService.loadCatalog();
+    }
+
+    // Cache hit path for GET /api/services
+    @Benchmark
+    public List<ServiceDTO> getAllActive() {
+        return serviceService.getAllActive();
+    }
+
+    @Benchmark
+    public List<ServiceDTO> getAllActiveSortedByPrice() {
+        return serviceService.getAllActiveSortedByPrice();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ServiceDTO toDTO() {
+        return serviceService.toDTO(service);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Service toEntity() {
+        return serviceService.toEntity(dto);
+    }
+
+    // Validering af alle priser i kataloget (én create/update pr. pris)
+    @Benchmark
+    public int isValidPrice() {
+        int valid = 0;
+        for (Double price : prices) {
+            if (serviceService.isValidPrice(price)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -2,13 +2,19 @@ package dk.bilensven;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableJpaAuditing
+@EnableScheduling
 @SpringBootApplication
 public class BilensvenApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BilensvenApplication.class, args);
+		SpringApplication application = new SpringApplication(BilensvenApplication.class);
+		// Optag startup steps til StartupReport og GET /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 }
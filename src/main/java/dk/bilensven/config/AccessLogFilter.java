@@ -0,0 +1,100 @@
+package dk.bilensven.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Én access log linje pr. /api request: method, uri, status, latency (erstatter log.info i hver controller)
+// Key/value felter følger med i struktureret output (profil json-logs)
+// Fejl (4xx/5xx) og langsomme requests logges altid, resten efter sample rate
+@Slf4j(topic = "dk.bilensven.access")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogProperties properties;
+
+    public AccessLogFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !log.isInfoEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming/async svar: log når svaret faktisk er færdigt
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logRequest(request, response.getStatus(), start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                logRequest(request, response.getStatus(), start);
+            }
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, int status, long startNanos) {
+        long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+        boolean always = status >= 400 || durationMs >= properties.getSlowThreshold().toMillis();
+        if (!always && !sampled(request.getRequestURI())) {
+            return;
+        }
+
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        log.atInfo()
+                .addKeyValue("http.method", request.getMethod())
+                .addKeyValue("http.uri", uri)
+                .addKeyValue("http.status", status)
+                .addKeyValue("duration_ms", durationMs)
+                .log("{} {} {} {}ms", request.getMethod(), uri, status, durationMs);
+    }
+
+    private boolean sampled(String path) {
+        double rate = properties.getSampleRate();
+        int longestMatch = -1;
+        for (Map.Entry<String, Double> entry : properties.getSampleRates().entrySet()) {
+            if (path.startsWith(entry.getKey()) && entry.getKey().length() > longestMatch) {
+                longestMatch = entry.getKey().length();
+                rate = entry.getValue();
+            }
+        }
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
@@ -0,0 +1,28 @@
+package dk.bilensven.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Access log for /api requests (app.access-log.*)
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    // Andel af succesfulde requests der logges (1.0 = alle)
+    private double sampleRate = 1.0;
+
+    // Sample rate pr. path prefix, fx app.access-log.sample-rates[/api/services]=0.1
+    // Længste matchende prefix vinder
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+    // Langsomme requests logges altid (ligesom fejl)
+    private Duration slowThreshold = Duration.ofMillis(500);
+}
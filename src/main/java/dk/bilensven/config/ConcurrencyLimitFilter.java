@@ -0,0 +1,90 @@
+package dk.bilensven.config;
+
+import dk.bilensven.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Begrænser samtidige /api requests når Tomcat kører på virtual threads
+// Virtual threads er billige, men Hikari-poolen er ikke: uden loft hober tusindvis af
+// requests sig op i connection-køen og rammer connectionTimeout i stedet for at fejle hurtigt
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final JsonMapper jsonMapper;
+
+    public ConcurrencyLimitFilter(
+            @Value("${app.virtual-threads.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.virtual-threads.acquire-timeout:2s}") Duration acquireTimeout,
+            JsonMapper jsonMapper) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.jsonMapper = jsonMapper;
+        log.info("Virtual threads enabled - max {} concurrent /api requests", maxConcurrent);
+    }
+
+    // Kun API kald (statiske filer rører ikke databasen)
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 503 med samme ErrorResponse format som GlobalExceptionHandler
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.warn("Concurrency limit reached, rejecting {}", request.getRequestURI());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Serveren er travl lige nu. Prøv igen om lidt.",
+                request.getRequestURI()
+        );
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,30 @@
+package dk.bilensven.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Indstillinger for kontaktformular ingestion (app.contact.ingestion.*)
+// mode=sync: én INSERT pr. request (default) - mode=async: bounded kø + batch writer
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.contact.ingestion")
+public class ContactIngestionProperties {
+
+    // "sync" eller "async"
+    private String mode = "sync";
+
+    // Max antal beskeder i køen før nye afvises med 503
+    private int queueCapacity = 10_000;
+
+    // Max antal rækker pr. JDBC batch
+    private int batchSize = 100;
+
+    // Hvor længe writer venter på første besked før den tjekker for shutdown
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    // Max ventetid på at køen drænes ved shutdown
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
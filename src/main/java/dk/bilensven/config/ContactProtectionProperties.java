@@ -0,0 +1,30 @@
+package dk.bilensven.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Spam-beskyttelse af POST /api/contact (app.contact.protection.*)
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.contact.protection")
+public class ContactProtectionProperties {
+
+    // Slå rate limiting + duplikat-filter til/fra
+    private boolean enabled = true;
+
+    // Token bucket pr. klient-IP: max burst
+    private int burst = 5;
+
+    // Token bucket: antal nye tokens pr. refillPeriod
+    private int refillTokens = 5;
+    private Duration refillPeriod = Duration.ofMinutes(10);
+
+    // Buckets uden aktivitet i dette tidsrum fjernes (holder hukommelsen bounded)
+    private Duration idleEviction = Duration.ofMinutes(30);
+
+    // Identiske beskeder (email + tekst) afvises inden for dette vindue
+    private Duration duplicateWindow = Duration.ofMinutes(10);
+}
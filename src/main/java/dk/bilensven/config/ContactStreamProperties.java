@@ -0,0 +1,26 @@
+package dk.bilensven.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Indstillinger for SSE stream af kontaktbeskeder (app.contact.stream.*)
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.contact.stream")
+public class ContactStreamProperties {
+
+    // Max samtidige admin-forbindelser (flere afvises med 503)
+    private int maxSubscribers = 100;
+
+    // Max ventende events pr. forbindelse - fuld buffer = langsom klient, forbindelsen lukkes
+    private int bufferSize = 256;
+
+    // Kommentar-linje med dette interval holder proxies åbne og opdager døde forbindelser
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    // Forbindelsen lukkes efter denne tid - EventSource genforbinder automatisk
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -1,32 +1,44 @@
 package dk.bilensven.config;
 
-import dk.bilensven.model.Employee;
-import dk.bilensven.model.Service;
+import dk.bilensven.dto.BulkOperation;
+import dk.bilensven.dto.BulkResult;
+import dk.bilensven.dto.EmployeeDTO;
+import dk.bilensven.dto.ServiceDTO;
 import dk.bilensven.repository.EmployeeRepository;
 import dk.bilensven.repository.ServiceRepository;
-import jakarta.annotation.PostConstruct;
+import dk.bilensven.service.EmployeeService;
+import dk.bilensven.service.ServiceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
-// Fylder database med test data ved startup
+// Fylder database med test data efter startup
 @Slf4j
 @Component
 @RequiredArgsConstructor
-// Kun aktiv hvis app.data.initialize-on-startup=true
-@ConditionalOnProperty(
-        name = "app.data.initialize-on-startup",
-        havingValue = "true",
-        matchIfMissing = true
-)
 public class DataInitializer {
 
+    // Kun aktiv hvis app.data.initialize-on-startup=true - læses ved runtime, så AOT ikke låser valget ved build
+    @Value("${app.data.initialize-on-startup:true}")
+    private boolean initializeOnStartup;
+
     private final EmployeeRepository employeeRepository;
     private final ServiceRepository serviceRepository;
+    private final EmployeeService employeeService;
+    private final ServiceService serviceService;
+
+    // 3 medarbejdere
+    private static final List<EmployeeDTO> EMPLOYEES = List.of(
+            employee("Michael Hansen", "Ejer & Hovedmekaniker", "michael@bilensven.dk", "+45 66 12 32 64"),
+            employee("Lars Nielsen", "Mekaniker", "lars@bilensven.dk", "+45 54 12 63 11"),
+            employee("Peter Jensen", "Lærling", "peter@bilensven.dk", "+45 54 23 12 56")
+    );
 
     // Record for service data (immutable)
     private record ServiceData(String name, String description, double price, String imageUrl) {}
@@ -55,11 +67,13 @@ public class DataInitializer {
                     3200.00, "https://images.unsplash.com/photo-1552519507-da3b142c6e3d?w=400")
     );
 
-    // Kører automatisk ved startup (efter dependency injection)
-    @PostConstruct
-    // Wrapper alt i én database transaction
-    @Transactional
-    public void init() {
+    // Kører når applikationen melder klar (readiness ACCEPTING_TRAFFIC) - blokerer ikke opstart
+    // Går gennem service-laget, så katalog-cache og ETag-versioner invalideres som ved almindelige writes
+    @EventListener
+    public void init(AvailabilityChangeEvent<ReadinessState> event) {
+        if (!initializeOnStartup || event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
         // Skip hvis data allerede eksisterer
         if (employeeRepository.count() > 0 || serviceRepository.count() > 0) {
             log.info("Database already contains data. Skipping initialization.");
@@ -67,57 +81,19 @@ public class DataInitializer {
         }
 
         log.info("Initializing test data...");
-        initializeEmployees();
-        initializeServices();
-        log.info("Test data initialized: {} employees, {} services",
-                employeeRepository.count(), serviceRepository.count());
-    }
-
-    // Opret 3 medarbejdere med batch save
-    private void initializeEmployees() {
-        List<Employee> employees = List.of(
-                createEmployee("Michael Hansen", "Ejer & Hovedmekaniker",
-                        "michael@bilensven.dk", "+45 66 12 32 64"),
-                createEmployee("Lars Nielsen", "Mekaniker",
-                        "lars@bilensven.dk", "+45 54 12 63 11"),
-                createEmployee("Peter Jensen", "Lærling",
-                        "peter@bilensven.dk", "+45 54 23 12 56")
-        );
-
-        // Batch save (1 query i stedet for 3)
-        employeeRepository.saveAll(employees);
-    }
-
-    // Opret 10 services med stream og batch save
-    private void initializeServices() {
-        // Transform ServiceData → Service entities
-        List<Service> services = SERVICES.stream()
-                .map(data -> createService(data.name(), data.description(), data.price(), data.imageUrl()))
-                .toList();
-
-        // Batch save (1 query i stedet for 10)
-        serviceRepository.saveAll(services);
+        BulkResult employees = employeeService.bulk(EMPLOYEES.stream().map(DataInitializer::create).toList());
+        BulkResult services = serviceService.bulk(SERVICES.stream()
+                .map(data -> create(new ServiceDTO(null, data.name(), data.description(), data.price(),
+                        true, data.imageUrl(), null, null, null)))
+                .toList());
+        log.info("Test data initialized: {} employees, {} services", employees.succeeded(), services.succeeded());
     }
 
-    // Helper: Opret employee entity
-    private Employee createEmployee(String name, String position, String email, String phone) {
-        Employee employee = new Employee();
-        employee.setName(name);
-        employee.setPosition(position);
-        employee.setEmail(email);
-        employee.setPhone(phone);
-        employee.setActive(true);
-        return employee;
+    private static EmployeeDTO employee(String name, String position, String email, String phone) {
+        return new EmployeeDTO(null, name, position, email, phone, null, true, null, null, null);
     }
 
-    // Helper: Opret service entity
-    private Service createService(String name, String description, double price, String imageUrl) {
-        Service service = new Service();
-        service.setName(name);
-        service.setDescription(description);
-        service.setPrice(price);
-        service.setImageUrl(imageUrl);
-        service.setActive(true);
-        return service;
+    private static <T> BulkOperation<T> create(T data) {
+        return new BulkOperation<>(BulkOperation.Action.CREATE, null, data);
     }
-}
\ No newline at end of file
+}
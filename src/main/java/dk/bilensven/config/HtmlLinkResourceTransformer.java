@@ -0,0 +1,41 @@
+package dk.bilensven.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Omskriv href="css/..." og src="js/..." i statiske HTML sider til fingerprinted URLs
+// Resultatet caches af resource chain'en, så hver side kun transformeres én gang
+class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern ASSET_LINK = Pattern.compile("(href|src)=\"((?:css|js)/[^\"]+)\"");
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        resource = chain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+
+        String html = resource.getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = ASSET_LINK.matcher(html);
+        StringBuilder result = new StringBuilder(html.length() + 256);
+        while (matcher.find()) {
+            // Sider ligger i roden, så "css/x.css" svarer til "/css/x.css"
+            String versioned = resolveUrlPath("/" + matcher.group(2), request, resource, chain);
+            String link = versioned != null ? versioned : matcher.group(2);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(matcher.group(1) + "=\"" + link + "\""));
+        }
+        matcher.appendTail(result);
+        return new TransformedResource(resource, result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
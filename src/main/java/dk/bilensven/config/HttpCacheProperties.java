@@ -0,0 +1,25 @@
+package dk.bilensven.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Cache-Control headers pr. public read endpoint (app.http.cache-control.*)
+// Default "no-cache": browseren må cache, men skal revalidere med If-None-Match (billig 304)
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.http.cache-control")
+public class HttpCacheProperties {
+
+    // GET /api/services
+    private String servicesList = "no-cache";
+
+    // GET /api/services/{id}
+    private String servicesItem = "no-cache";
+
+    // GET /api/employees
+    private String employeesList = "no-cache";
+
+    // GET /api/employees/{id}
+    private String employeesItem = "no-cache";
+}
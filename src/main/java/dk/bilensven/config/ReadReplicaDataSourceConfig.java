@@ -0,0 +1,89 @@
+package dk.bilensven.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Read/write routing: @Transactional(readOnly = true) → replica, alt andet → primary
+// Kun aktiv hvis app.datasource.replica.url er sat - ellers bruges primary pool direkte
+// Læses ved runtime (ikke @ConditionalOnProperty, som AOT låser ved build), så replica kan slås til med env var
+@Slf4j
+@Configuration
+public class ReadReplicaDataSourceConfig implements DisposableBean {
+
+    static final String REPLICA_PREFIX = "app.datasource.replica";
+
+    private HikariDataSource replicaDataSource;
+
+    // Primary pool (writes) - samme spring.datasource.* og spring.datasource.hikari.* som Spring Boot's standard
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    // DataSource som JPA, JdbcTemplate og transaction manager bruger
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 DataSourceProperties primary,
+                                 Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        String url = environment.getProperty(REPLICA_PREFIX + ".url");
+        if (url == null || url.isBlank()) {
+            return primaryDataSource;
+        }
+
+        // Replica pool - credentials falder tilbage til primary hvis ikke sat
+        // Pool tuning via app.datasource.replica.hikari.*
+        replicaDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(environment.getProperty(REPLICA_PREFIX + ".username", primary.determineUsername()))
+                .password(environment.getProperty(REPLICA_PREFIX + ".password", primary.determinePassword()))
+                .build();
+        Binder.get(environment).bind(REPLICA_PREFIX + ".hikari", Bindable.ofInstance(replicaDataSource));
+        replicaDataSource.setPoolName("replica");
+        replicaDataSource.setReadOnly(true);
+        // Ikke en bean - hikaricp_* metrics bindes her (pool="replica")
+        meterRegistry.ifAvailable(registry ->
+                replicaDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        primaryDataSource.setPoolName("primary");
+
+        log.info("Read replica enabled - read-only transactions use {}", replicaDataSource.getJdbcUrl());
+        return routingDataSource(primaryDataSource, replicaDataSource);
+    }
+
+    // Connection hentes først ved første statement, når transactionens readOnly flag er sat
+    public static DataSource routingDataSource(DataSource primary, DataSource replica) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replica);
+        return routing;
+    }
+
+    // Replica pool lukkes sammen med context (primary lukkes af Spring som bean)
+    @Override
+    public void destroy() {
+        if (replicaDataSource != null) {
+            replicaDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dk.bilensven.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+// Startup rapport i loggen: samlet opstartstid + de langsomste bean instantieringer
+// Bruges til at spotte regressioner mellem builds (fuld timeline: GET /actuator/startup)
+// Metrics: application.started.time / application.ready.time i /actuator/prometheus
+@Slf4j
+@Component
+public class StartupReport {
+
+    private static final int SLOWEST_BEANS = 10;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        log.info("Startup report: ready in {} ms", event.getTimeTaken().toMillis());
+
+        // Kun når main() har sat BufferingApplicationStartup (ikke i tests)
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        // Varighed er inklusiv afhængigheder der oprettes undervejs
+        startup.getBufferedTimeline().getEvents().stream()
+                .filter(timelineEvent -> timelineEvent.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(timelineEvent -> log.info("Startup report: {} ms {}",
+                        timelineEvent.getDuration().toMillis(), beanName(timelineEvent.getStartupStep())));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,78 @@
+package dk.bilensven.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+// Static frontend: fingerprinted CSS/JS (content hash i filnavnet) + build-time gzip varianter
+// Erstatter Boot's default /** mapping (spring.web.resources.add-mappings=false)
+//   /css/styles.css → /css/styles-<md5>.css  (Cache-Control: immutable, 1 år)
+//   HTML sider       → links omskrives til fingerprinted URLs, revalideres ved hvert besøg
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    // Filnavn med content hash fra ContentVersionStrategy (32 hex tegn før endelsen)
+    private static final Pattern FINGERPRINTED = Pattern.compile("-[0-9a-f]{32}\\.(css|js)$");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
+    private final WebProperties.Resources.Chain chain;
+
+    public StaticResourceConfig(WebProperties webProperties) {
+        this.chain = webProperties.getResources().getChain();
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // CSS/JS: *.gz fra Maven build (EncodedResourceResolver) + content-hash versioner
+        assetChain(registry.addResourceHandler("/css/**").addResourceLocations("classpath:/static/css/"));
+        assetChain(registry.addResourceHandler("/js/**").addResourceLocations("classpath:/static/js/"));
+
+        // HTML sider: altid revalidering (billig 304 via Last-Modified)
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(chain.isCache())
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+
+    private void assetChain(ResourceHandlerRegistration registration) {
+        // CssLinkResourceTransformer tilføjes automatisk sammen med VersionResourceResolver
+        ResourceChainRegistration resourceChain = registration.resourceChain(chain.isCache());
+        if (chain.isCompressed()) {
+            resourceChain.addResolver(new EncodedResourceResolver());
+        }
+        resourceChain.addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    // Immutable kun på fingerprinted URLs - en URL uden hash kan skifte indhold ved næste deploy
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL,
+                        FINGERPRINTED.matcher(request.getRequestURI()).find()
+                                ? IMMUTABLE.getHeaderValue()
+                                : CacheControl.noCache().getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns("/css/**", "/js/**");
+    }
+}
@@ -0,0 +1,27 @@
+package dk.bilensven.controller;
+
+import dk.bilensven.dto.AdminSummaryDTO;
+import dk.bilensven.service.AdminSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+// REST API Controller for admin dashboard
+@RequestMapping("/api/admin")
+// Base URL: /api/admin
+@RequiredArgsConstructor
+// Lombok: Auto-generate constructor for final fields
+public class AdminController {
+
+    private final AdminSummaryService adminSummaryService;
+
+    // GET: Tællere til dashboard (aktive services/medarbejdere, beskeder)
+    @GetMapping("/summary")
+    public ResponseEntity<AdminSummaryDTO> getSummary() {
+        AdminSummaryDTO summary = adminSummaryService.getSummary();
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -1,13 +1,22 @@
 package dk.bilensven.controller;
 
 import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.dto.ContactMessageSummary;
+import dk.bilensven.dto.CursorPage;
+import dk.bilensven.service.ContactMessageIngestion;
 import dk.bilensven.service.ContactMessageService;
+import dk.bilensven.service.ContactSpamGuard;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 import java.util.Map;
@@ -18,20 +27,49 @@ import java.util.Map;
 // Base URL
 @RequiredArgsConstructor
 // Lombok: Auto-generate constructor for final fields
-@Slf4j
-// Lombok: Tilføj logger (log.info, log.error, etc.)
 
 public class ContactMessageController {
 
+    // Response header med cursor til næste side
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     // Service layer dependency
     private final ContactMessageService contactMessageService;
 
+    private final ContactSpamGuard contactSpamGuard;
+
+    // Kø + batch writer - bruges kun når app.contact.ingestion.mode=async
+    private final ContactMessageIngestion ingestion;
+
+    // Spring's konfigurerede JSON mapper (samme format som øvrige responses)
+    private final JsonMapper jsonMapper;
+
+    // Fan-out af nye/læste/slettede beskeder til admin (SSE)
+    private final ContactMessageStreamHub streamHub;
+
     // POST: Modtag og gem kontaktformular
+    // Async ingestion (app.contact.ingestion.mode=async): valider, læg i kø og svar 202 med det samme
     @PostMapping
-    public ResponseEntity<?> submitContactForm(@Valid @RequestBody ContactMessageDTO dto) {
-        log.info("POST /api/contact - New contact message received");
+    public ResponseEntity<?> submitContactForm(@Valid @RequestBody ContactMessageDTO dto,
+                                               HttpServletRequest request) {
+        // Rate limit pr. IP + duplikat-filter (429 / 409 før database)
+        contactSpamGuard.check(request.getRemoteAddr(), dto);
 
-        ContactMessageDTO saved = contactMessageService.save(dto);
+        ContactMessageDTO saved;
+        try {
+            if (ingestion.isEnabled()) {
+                ingestion.enqueue(dto);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                        "success", true,
+                        "message", "Din besked er blevet sendt. Vi kontakter dig snart."
+                ));
+            }
+            saved = contactMessageService.save(dto);
+        } catch (RuntimeException e) {
+            // Intet blev gemt (fuld kø → 503, databasefejl) - klientens retry må ikke ses som duplikat
+            contactSpamGuard.release(dto);
+            throw e;
+        }
 
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "success", true,
@@ -40,26 +78,67 @@ public class ContactMessageController {
         ));
     }
 
-    // GET: Hent alle beskeder (admin panel)
+    // GET: Hent beskeder side for side (admin panel)
+    // Query params: ?limit=50&read=false&cursor=... (cursor fra X-Next-Cursor header)
     @GetMapping("/messages")
-    public ResponseEntity<List<ContactMessageDTO>> getAllMessages() {
-        log.info("GET /api/contact/messages");
-        List<ContactMessageDTO> messages = contactMessageService.getAllMessages();
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<List<ContactMessageSummary>> getAllMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int limit,
+            @RequestParam(required = false) Boolean read) {
+        CursorPage<ContactMessageSummary> page = contactMessageService.getMessagesPage(cursor, limit, read);
+
+        // Body forbliver et JSON array - næste side signaleres via header
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
-    // GET: Hent ulæste beskeder
+    // GET: Hent ulæste beskeder (pagineret som /messages)
     @GetMapping("/messages/unread")
-    public ResponseEntity<List<ContactMessageDTO>> getUnreadMessages() {
-        log.info("GET /api/contact/messages/unread");
-        List<ContactMessageDTO> messages = contactMessageService.getUnreadMessages();
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<List<ContactMessageSummary>> getUnreadMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int limit) {
+        CursorPage<ContactMessageSummary> page = contactMessageService.getUnreadMessages(cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // GET: Stream alle ulæste beskeder som ét JSON array
+    // Skrives element for element - ingen fuld liste i heap (til eksport/store mængder)
+    @GetMapping(value = "/messages/unread/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUnreadMessages() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = jsonMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                contactMessageService.streamUnreadMessages(generator::writePOJO);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // GET: Live stream af ændringer (Server-Sent Events) - erstatter polling i admin panelet
+    // Events: created / read / deleted med samme JSON som listevisningen (ContactMessageSummary)
+    @GetMapping(value = "/messages/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessageEvents() {
+        return streamHub.subscribe();
+    }
+
+    // GET: Hent én besked med fuld tekst (listerne returnerer kun preview)
+    @GetMapping("/messages/{id}")
+    public ResponseEntity<ContactMessageDTO> getMessage(@PathVariable Long id) {
+        return ResponseEntity.ok(contactMessageService.getById(id));
     }
 
     // PATCH: Marker besked som læst
     @PatchMapping("/messages/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        log.info("PATCH /api/contact/messages/{}/read", id);
         contactMessageService.markAsRead(id);
         return ResponseEntity.noContent().build();
     }
@@ -67,7 +146,6 @@ public class ContactMessageController {
     // DELETE: Slet besked
     @DeleteMapping("/messages/{id}")
     public ResponseEntity<Void> deleteMessage(@PathVariable Long id) {
-        log.info("DELETE /api/contact/messages/{}", id);
         contactMessageService.deleteMessage(id);
         return ResponseEntity.noContent().build();
     }
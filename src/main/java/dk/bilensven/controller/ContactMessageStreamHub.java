@@ -0,0 +1,211 @@
+package dk.bilensven.controller;
+
+import dk.bilensven.config.ContactStreamProperties;
+import dk.bilensven.dto.ContactMessageEvent;
+import dk.bilensven.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fan-out af kontaktbesked-events til forbundne admin-klienter (Server-Sent Events)
+// Hver forbindelse har en bounded buffer - en langsom klient lukkes i stedet for at holde resten tilbage
+// Åbne forbindelser er async servlet requests (ingen tråd pr. forbindelse); afsendelse sker på virtual threads
+@Slf4j
+@Component
+public class ContactMessageStreamHub implements SmartLifecycle, MeterBinder {
+
+    // Klienten venter 3 sekunder før den genforbinder efter en afbrudt forbindelse
+    private static final long RECONNECT_MILLIS = 3_000;
+
+    private final ContactStreamProperties properties;
+    private final JsonMapper jsonMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private volatile boolean running;
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeat;
+
+    public ContactMessageStreamHub(ContactStreamProperties properties, JsonMapper jsonMapper) {
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Ny forbindelse: registrer emitter og send reconnect-hint som første event
+    public SseEmitter subscribe() {
+        if (!running || subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceUnavailableException("For mange åbne forbindelser. Prøv igen om lidt.");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        subscribers.add(subscriber);
+
+        subscriber.offer(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected").build());
+        log.debug("SSE subscriber connected ({} open)", subscribers.size());
+        return emitter;
+    }
+
+    // Events publiceres af service-laget og leveres først efter commit
+    // fallbackExecution: async ingestion publicerer uden for en transaction (efter sin egen commit)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(ContactMessageEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Serialiseres én gang - samme bytes til alle forbindelser
+        Set<ResponseBodyEmitter.DataWithMediaType> data = SseEmitter.event()
+                .name(event.type().eventName())
+                .data(jsonMapper.writeValueAsString(event.message()))
+                .build();
+        published.increment();
+        subscribers.forEach(subscriber -> subscriber.offer(data));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("contact-stream-", 0).factory());
+        heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("contact-stream-heartbeat").daemon().factory());
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    // Luk alle forbindelser før web serveren venter på igangværende requests (graceful shutdown)
+    @Override
+    public void stop() {
+        running = false;
+        heartbeat.shutdownNow();
+        subscribers.forEach(this::close);
+        sender.shutdown();
+        log.info("Contact message stream stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stoppes først (højeste fase), så åbne SSE requests ikke forsinker graceful shutdown
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    // Kommentar-linje ": heartbeat" - ignoreres af EventSource, men fejler på døde forbindelser
+    private void sendHeartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("heartbeat").build();
+        subscribers.forEach(subscriber -> subscriber.offer(ping));
+    }
+
+    // Fjern og afslut forbindelse (idempotent)
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.closed = true;
+            try {
+                subscriber.emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Closing SSE subscriber failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Én forbindelse: bounded kø + højst én afsender ad gangen (events leveres i rækkefølge)
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(properties.getBufferSize());
+        }
+
+        // Ikke-blokerende: fuld buffer betyder at klienten ikke kan følge med → luk forbindelsen
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> data) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(data)) {
+                evicted.increment();
+                log.warn("Closing slow SSE subscriber ({} events buffered)", queue.size());
+                close(this);
+                return;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (running && sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Skriv ventende events - en blokeret skrivning binder kun en virtual thread
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> data;
+                while (!closed && (data = queue.poll()) != null) {
+                    emitter.send(data);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Klienten er væk (eller emitteren allerede afsluttet)
+                log.debug("SSE send failed: {}", e.getMessage());
+                close(this);
+            } finally {
+                sending.set(false);
+            }
+            // Event kan være lagt i kø mellem sidste poll og sending.set(false)
+            if (!closed && !queue.isEmpty()) {
+                scheduleSend();
+            }
+        }
+    }
+
+    // Metrics: åbne forbindelser, publicerede events, lukkede langsomme klienter
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("contact.stream.subscribers", subscribers, Set::size)
+                .register(registry);
+        FunctionCounter.builder("contact.stream.events", published, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("contact.stream.evictions", evicted, LongAdder::sum)
+                .description("SSE forbindelser lukket fordi klienten ikke kunne følge med")
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package dk.bilensven.controller;
+
+import dk.bilensven.exception.PreconditionFailedException;
+
+// Strong ETags bygget af in-process data-generationer (ingen database query)
+// Enkelte services/medarbejdere bruger entity-versionen (@Version), som også er If-Match værdien ved PUT
+final class ETags {
+
+    // Skifter ved hver opstart, så ETags fra en tidligere proces aldrig matcher
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    // Format: "resource-bootId-generation"
+    static String of(String resource, long generation) {
+        return "\"" + resource + "-" + BOOT_ID + "-" + generation + "\"";
+    }
+
+    // Gzip body er en anden repræsentation (andre bytes) → eget strong ETag: "resource-bootId-generation-gz"
+    static String of(String resource, long generation, boolean gzip) {
+        return gzip ? "\"" + resource + "-" + BOOT_ID + "-" + generation + "-gz\"" : of(resource, generation);
+    }
+
+    // Format: "v3" - versionen er persisteret, så ETag'en overlever genstart
+    static String ofVersion(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    // If-Match → forventet version; null = ingen header eller "*" (enhver version)
+    // Et ETag vi ikke selv har udstedt kan aldrig matche → 412
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // If-Match kræver strong comparison (RFC 9110)
+            throw new PreconditionFailedException("Weak ETags cannot be used with If-Match");
+        }
+        if (tag.length() > 3 && tag.startsWith("\"v") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(2, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falder igennem til 412
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version");
+    }
+}
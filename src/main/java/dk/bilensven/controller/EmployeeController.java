@@ -1,15 +1,17 @@
 package dk.bilensven.controller;
 
+import dk.bilensven.config.HttpCacheProperties;
+import dk.bilensven.dto.BulkRequest;
+import dk.bilensven.dto.BulkResult;
 import dk.bilensven.dto.EmployeeDTO;
 import dk.bilensven.service.EmployeeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -18,53 +20,88 @@ import java.util.List;
 // Base URL: /api/employees
 @RequiredArgsConstructor
 // Lombok: Auto-generate constructor for final fields
-@Slf4j
-// Lombok: Tilføj logger
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final HttpCacheProperties cacheProperties;
+    private final EncodedJsonCache jsonCache;
 
     // GET: Hent alle aktive medarbejdere
+    // Conditional GET: If-None-Match → 304 uden database query eller serialisering
+    // Ellers skrives færdig-serialiseret JSON (evt. gzip) direkte - gen-encodes kun efter writes
     @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> getAllActive() {
-        log.info("GET /api/employees - Fetch all active employees");
-        List<EmployeeDTO> employees = employeeService.getAllActive();
-        return ResponseEntity.ok(employees);
+    public ResponseEntity<byte[]> getAllActive(WebRequest request) {
+        long version = employeeService.getVersion();
+        // Gzip og rå JSON er forskellige repræsentationer → hver sit ETag
+        boolean gzip = EncodedJsonCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = ETags.of("employees", version, gzip);
+        if (request.checkNotModified(etag)) {
+            // checkNotModified har allerede sat ETag + 304 på responsen
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getEmployeesList())
+                    .build();
+        }
+
+        EncodedJsonCache.Payload payload = jsonCache.get("employees", version, employeeService::getAllActive);
+        return jsonCache.respond(payload, gzip, etag, cacheProperties.getEmployeesList());
     }
 
     // GET: Hent specifik medarbejder via ID
+    // ETag = entity-versionen ("v3"), samme værdi som PUT forventer i If-Match
     @GetMapping("/{id}")
-    public ResponseEntity<EmployeeDTO> getById(@PathVariable Long id) {
-        log.info("GET /api/employees/{} - Fetch employee by id", id);
-        // Hvis ikke fundet → 404 Not Found exception
+    public ResponseEntity<EmployeeDTO> getById(@PathVariable Long id, WebRequest request) {
+        // Hvis ikke fundet → 404 Not Found exception (second-level cache - normalt ingen query)
         EmployeeDTO employee = employeeService.getById(id);
-        return ResponseEntity.ok(employee);
+        String etag = ETags.ofVersion(employee.getVersion());
+        if (request.checkNotModified(etag)) {
+            // checkNotModified har allerede sat ETag + 304 på responsen
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getEmployeesItem())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getEmployeesItem())
+                .body(employee);
     }
 
     // POST: Opret ny medarbejder
     @PostMapping
     public ResponseEntity<EmployeeDTO> create(@Valid @RequestBody EmployeeDTO dto) {
-        log.info("POST /api/employees - Create new employee");
         // @Valid validerer DTO (NotBlank, Email, Size, etc.)
         EmployeeDTO created = employeeService.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     // PUT: Opdater eksisterende medarbejder
+    // If-Match: "v<version>" (ETag fra GET) - forældet version → 412, ingen header = ubetinget
     @PutMapping("/{id}")
     public ResponseEntity<EmployeeDTO> update(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody EmployeeDTO dto) {
-        log.info("PUT /api/employees/{} - Update employee", id);
+        Long expected = ETags.ifMatchVersion(ifMatch);
+        if (expected != null) {
+            dto.setVersion(expected);  // If-Match vinder over version i body
+        }
         // Hvis ID ikke findes → 404 exception
         EmployeeDTO updated = employeeService.update(id, dto);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(updated.getVersion()))
+                .body(updated);
+    }
+
+    // PATCH: Bulk create/update/soft-delete (max 500 operationer, én transaction)
+    // Svar: resultat pr. operation i samme rækkefølge som request
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkResult> bulk(@Valid @RequestBody BulkRequest<EmployeeDTO> request) {
+        return ResponseEntity.ok(employeeService.bulk(request.getOperations()));
     }
 
     // DELETE: Slet medarbejder
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        log.info("DELETE /api/employees/{} - Delete employee", id);
         employeeService.delete(id);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,132 @@
+package dk.bilensven.controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Færdig-serialiserede JSON svar for de public list endpoints (services + employees)
+// Holder UTF-8 bytes + gzip variant pr. nøgle, bygget én gang pr. data-generation
+// Svar skrives direkte som byte[] - ingen Jackson serialisering eller komprimering pr. request
+@Slf4j
+@Component
+public class EncodedJsonCache implements MeterBinder {
+
+    // Immutable payload for én generation
+    public record Payload(long generation, byte[] identity, byte[] gzip) {
+    }
+
+    private final JsonMapper jsonMapper;
+    private final Map<String, Payload> payloads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EncodedJsonCache(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Returner payload for nøgle + generation, eller serialiser body fra loader ved miss
+    // Generationen læses af kalderen FØR load, så en samtidig write altid giver miss næste gang
+    public Payload get(String key, long generation, Supplier<?> loader) {
+        Payload payload = payloads.get(key);
+        if (payload != null && payload.generation() == generation) {
+            hits.increment();
+            return payload;
+        }
+
+        misses.increment();
+        byte[] identity = jsonMapper.writeValueAsBytes(loader.get());
+        Payload encoded = new Payload(generation, identity, gzip(identity));
+        // Erstat aldrig en nyere generation med en ældre
+        payloads.merge(key, encoded, (existing, fresh) ->
+                fresh.generation() >= existing.generation() ? fresh : existing);
+        log.debug("Encoded {} ({} bytes, {} gzip)", key, identity.length, encoded.gzip().length);
+        return encoded;
+    }
+
+    // Byg 200 svar: gzip hvis klienten accepterer det, ellers rå UTF-8 bytes
+    // etag skal matche valgt encoding (se ETags.of(resource, generation, gzip))
+    public ResponseEntity<byte[]> respond(Payload payload, boolean gzip, String etag, String cacheControl) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? payload.gzip() : payload.identity());
+    }
+
+    // Accept-Encoding: gzip med q > 0 - eksplicit gzip vinder over *, som kun bruges hvis gzip ikke er nævnt
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                return !rejected(tokens);
+            }
+            if (coding.equals("*")) {
+                wildcard = !rejected(tokens);
+            }
+        }
+        return wildcard;
+    }
+
+    // q=0 betyder "ikke acceptabel"
+    private static boolean rejected(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) == 0.0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Hit/miss counters via Micrometer (/actuator/metrics/cache.gets?tag=cache:encodedJson)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", "encodedJson")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", "encodedJson")
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package dk.bilensven.controller;
+
+import dk.bilensven.dto.SearchHit;
+import dk.bilensven.exception.ValidationException;
+import dk.bilensven.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+// REST API Controller for fritekstsøgning (services + kontaktbeskeder)
+@RequestMapping("/api/search")
+// Base URL: /api/search
+@RequiredArgsConstructor
+// Lombok: Auto-generate constructor for final fields
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // GET: Søg - ?q=olie skift&type=service|message&limit=20
+    // Prefix-match pr. ord, alle ord skal matche, "citat" = frase
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        List<SearchHit> hits = searchService.search(q, parseType(type), limit);
+        return ResponseEntity.ok(hits);
+    }
+
+    // "service" / "message" (samme lowercase navne som i JSON svaret)
+    private static SearchHit.Type parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        return switch (type.trim().toLowerCase()) {
+            case "service" -> SearchHit.Type.SERVICE;
+            case "message" -> SearchHit.Type.MESSAGE;
+            default -> throw new ValidationException("Ugyldig type: " + type);
+        };
+    }
+}
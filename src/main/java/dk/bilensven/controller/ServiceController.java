@@ -1,15 +1,17 @@
 package dk.bilensven.controller;
 
+import dk.bilensven.config.HttpCacheProperties;
+import dk.bilensven.dto.BulkRequest;
+import dk.bilensven.dto.BulkResult;
 import dk.bilensven.dto.ServiceDTO;
 import dk.bilensven.service.ServiceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -18,40 +20,64 @@ import java.util.List;
 // Base URL: /api/services
 @RequiredArgsConstructor
 // Lombok: Auto-generate constructor for final fields
-@Slf4j
-// Lombok: Tilføj logger
 public class ServiceController {
 
     private final ServiceService serviceService;
+    private final HttpCacheProperties cacheProperties;
+    private final EncodedJsonCache jsonCache;
 
     // GET: Hent alle aktive services med optional sorting
+    // Conditional GET: If-None-Match → 304 uden database query eller serialisering
+    // Ellers skrives færdig-serialiseret JSON (evt. gzip) direkte - gen-encodes kun efter writes
     @GetMapping
-    public ResponseEntity<List<ServiceDTO>> getAllActive(
+    public ResponseEntity<byte[]> getAllActive(
             // Query param: ?sortBy=price eller ?sortBy=name (default: name)
-            @RequestParam(required = false, defaultValue = "name") String sortBy) {
-        log.info("GET /api/services?sortBy={}", sortBy);
+            @RequestParam(required = false, defaultValue = "name") String sortBy,
+            WebRequest request) {
+        boolean byPrice = sortBy.equals("price");
+        String resource = byPrice ? "services-price" : "services-name";
+        long version = serviceService.getCatalogVersion();
+        // Gzip og rå JSON er forskellige repræsentationer → hver sit ETag
+        boolean gzip = EncodedJsonCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = ETags.of(resource, version, gzip);
+        if (request.checkNotModified(etag)) {
+            // checkNotModified har allerede sat ETag + 304 på responsen
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getServicesList())
+                    .build();
+        }
 
         // Conditional sorting: price (billigste først) eller name (alfabetisk)
-        List<ServiceDTO> services = sortBy.equals("price")
+        EncodedJsonCache.Payload payload = jsonCache.get(resource, version, () -> byPrice
                 ? serviceService.getAllActiveSortedByPrice()
-                : serviceService.getAllActive();
+                : serviceService.getAllActive());
 
-        return ResponseEntity.ok(services);
+        return jsonCache.respond(payload, gzip, etag, cacheProperties.getServicesList());
     }
 
     // GET: Hent specifik service via ID
+    // ETag = entity-versionen ("v3"), samme værdi som PUT forventer i If-Match
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceDTO> getById(@PathVariable Long id) {
-        log.info("GET /api/services/{}", id);
-        // Hvis ikke fundet → 404 Not Found exception
+    public ResponseEntity<ServiceDTO> getById(@PathVariable Long id, WebRequest request) {
+        // Hvis ikke fundet → 404 Not Found exception (second-level cache - normalt ingen query)
         ServiceDTO service = serviceService.getById(id);
-        return ResponseEntity.ok(service);
+        String etag = ETags.ofVersion(service.getVersion());
+        if (request.checkNotModified(etag)) {
+            // checkNotModified har allerede sat ETag + 304 på responsen
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getServicesItem())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheProperties.getServicesItem())
+                .body(service);
     }
 
     // POST: Opret ny service
     @PostMapping
     public ResponseEntity<ServiceDTO> create(@Valid @RequestBody ServiceDTO dto) {
-        log.info("POST /api/services - Create new service");
         // @Valid validerer DTO (NotBlank, Positive, Size, etc.)
         ServiceDTO created = serviceService.create(dto);
         // Return HTTP 201 Created
@@ -59,20 +85,33 @@ public class ServiceController {
     }
 
     // PUT: Opdater eksisterende service
+    // If-Match: "v<version>" (ETag fra GET) - forældet version → 412, ingen header = ubetinget
     @PutMapping("/{id}")
     public ResponseEntity<ServiceDTO> update(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ServiceDTO dto) {
-        log.info("PUT /api/services/{}", id);
+        Long expected = ETags.ifMatchVersion(ifMatch);
+        if (expected != null) {
+            dto.setVersion(expected);  // If-Match vinder over version i body
+        }
         // Hvis ID ikke findes → 404 exception
         ServiceDTO updated = serviceService.update(id, dto);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(updated.getVersion()))
+                .body(updated);
+    }
+
+    // POST: Bulk create/update/soft-delete (max 500 operationer, én transaction)
+    // Svar: resultat pr. operation i samme rækkefølge som request
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> bulk(@Valid @RequestBody BulkRequest<ServiceDTO> request) {
+        return ResponseEntity.ok(serviceService.bulk(request.getOperations()));
     }
 
     // DELETE: Slet service
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        log.info("DELETE /api/services/{}", id);
         serviceService.delete(id);
         // Return HTTP 204 No Content
         return ResponseEntity.noContent().build();
@@ -0,0 +1,16 @@
+package dk.bilensven.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tællere til admin dashboard (én request i stedet for tre fulde lister)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminSummaryDTO {
+    private long activeServices;
+    private long activeEmployees;
+    private long totalMessages;
+    private long unreadMessages;
+}
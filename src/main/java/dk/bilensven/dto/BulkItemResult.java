@@ -0,0 +1,21 @@
+package dk.bilensven.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultat for én bulk operation (index = position i request)
+// status følger HTTP: 201 created, 200 updated, 204 deleted, 400/404/409 fejl
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, Long id, int status, String error) {
+
+    public static BulkItemResult success(int index, Long id, int status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failure(int index, Long id, int status, String error) {
+        return new BulkItemResult(index, id, status, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,30 @@
+package dk.bilensven.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Én operation i et bulk request
+// create: data påkrævet | update: id + data påkrævet | delete: id påkrævet (soft delete)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperation<T> {
+
+    public enum Action {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    @NotNull(message = "Action er påkrævet")
+    private Action action;
+
+    private Long id;
+
+    @Valid
+    private T data;
+}
@@ -0,0 +1,36 @@
+package dk.bilensven.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Request body for bulk endpoints: operationer udføres i rækkefølge i én transaction
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRequest<T> {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    @NotEmpty(message = "Mindst én operation er påkrævet")
+    @Size(max = MAX_OPERATIONS, message = "Max " + MAX_OPERATIONS + " operationer pr. request")
+    private List<@Valid @NotNull BulkOperation<T>> operations;
+
+    // Id'er som update/delete refererer til (hentes med ét IN-query)
+    public static Set<Long> referencedIds(List<? extends BulkOperation<?>> operations) {
+        return operations.stream()
+                .filter(op -> op.getAction() != BulkOperation.Action.CREATE)
+                .map(BulkOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,12 @@
+package dk.bilensven.dto;
+
+import java.util.List;
+
+// Samlet svar fra et bulk endpoint
+public record BulkResult(int succeeded, int failed, List<BulkItemResult> items) {
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int succeeded = (int) items.stream().filter(BulkItemResult::succeeded).count();
+        return new BulkResult(succeeded, items.size() - succeeded, List.copyOf(items));
+    }
+}
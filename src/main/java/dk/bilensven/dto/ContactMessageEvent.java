@@ -0,0 +1,15 @@
+package dk.bilensven.dto;
+
+// Ændring af en kontaktbesked - publiceres efter commit og pushes til admin via SSE
+// created: ny besked | read: markeret som læst | deleted: slettet (tilstand før sletning)
+public record ContactMessageEvent(Type type, ContactMessageSummary message) {
+
+    public enum Type {
+        CREATED, READ, DELETED;
+
+        // SSE "event:" navn (lowercase som øvrige enums i API'et)
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+}
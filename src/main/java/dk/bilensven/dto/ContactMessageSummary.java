@@ -0,0 +1,16 @@
+package dk.bilensven.dto;
+
+import java.time.LocalDateTime;
+
+// Listevisning af kontaktbesked: kun de første 120 tegn af beskeden
+// Fuld tekst hentes via GET /api/contact/messages/{id}
+public record ContactMessageSummary(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        String preview,
+        boolean read,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,8 @@
+package dk.bilensven.dto;
+
+import java.util.List;
+
+// Én side fra keyset pagination
+// nextCursor er null når der ikke er flere sider
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -38,4 +38,8 @@ public class EmployeeDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Optimistic locking: versionen klienten har set (sendes også som ETag "v<version>")
+    // PUT med en ældre version afvises med 412
+    private Long version;
 }
@@ -0,0 +1,18 @@
+package dk.bilensven.dto;
+
+import java.time.LocalDateTime;
+
+// Read-only projektion af en medarbejder (JPQL constructor expression - ingen managed entity)
+public record EmployeeSummary(
+        Long id,
+        String name,
+        String position,
+        String email,
+        String phone,
+        String imageUrl,
+        boolean active,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
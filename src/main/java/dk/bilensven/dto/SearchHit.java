@@ -0,0 +1,15 @@
+package dk.bilensven.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Ét søgeresultat fra /api/search (felterne kommer fra indexet - ingen database opslag)
+// service: title = navn, snippet = beskrivelse | message: title = afsender, subtitle = email, snippet = besked
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchHit(Type type, Long id, String title, String subtitle, String snippet, int score) {
+
+    public enum Type {
+        @JsonProperty("service") SERVICE,
+        @JsonProperty("message") MESSAGE
+    }
+}
@@ -30,4 +30,8 @@ public class ServiceDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Optimistic locking: versionen klienten har set (sendes også som ETag "v<version>")
+    // PUT med en ældre version afvises med 412
+    private Long version;
 }
\ No newline at end of file
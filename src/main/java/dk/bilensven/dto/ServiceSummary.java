@@ -0,0 +1,18 @@
+package dk.bilensven.dto;
+
+import java.time.LocalDateTime;
+
+// Read-only projektion af en service (JPQL constructor expression - ingen managed entity)
+// Bruges til katalog-listen; writes går stadig gennem Service entity
+public record ServiceSummary(
+        Long id,
+        String name,
+        String description,
+        long priceOre,
+        boolean active,
+        String imageUrl,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
@@ -3,6 +3,7 @@ package dk.bilensven.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
@@ -11,7 +12,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
-// Abstract base class for alle entities med fælles audit fields
+// Abstract base class for alle entities med fælles audit fields + version (optimistic locking)
 @MappedSuperclass
 // Spring Data JPA auditing listener (auto-set timestamps)
 @EntityListeners(AuditingEntityListener.class)
@@ -27,4 +28,11 @@ public abstract class BaseEntity {
     // Timestamp: Hauto-set ved update, null hvis aldrig opdateret
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    // Optimistic locking: tælles op ved hver update, UPDATE ... WHERE id = ? AND version = ?
+    // En samtidig ændring giver 0 rækker → OptimisticLockingFailureException (412)
+    // null = ny entity (Spring Data bruger det til persist vs. merge)
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -7,15 +7,16 @@ import lombok.NoArgsConstructor;
 
 // JPA Entity for kontaktbeskeder fra website kontaktformular
 @Entity
+// Indexes til keyset pagination og read filter: se db/migration/*/V4__query_indexes.sql
 @Table(name = "contact_messages")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ContactMessage extends BaseEntity {  // Arver createdAt + updatedAt
 
-    // Primary key (auto-increment)
+    // Primary key (tidsordnet, genereret i applikationen - muliggør batch INSERT)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, length = 100)
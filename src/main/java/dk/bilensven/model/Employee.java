@@ -1,21 +1,26 @@
 package dk.bilensven.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 // JPA Entity for medarbejdere
 @Entity
+// Second-level cache (hibernate-cache.conf) - READ_WRITE: opdateres/ugyldiggøres ved save i samme JVM
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
 @Table(name = "employees")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Employee extends BaseEntity {  // Arver createdAt + updatedAt
 
-    // Primary key (auto-increment)
+    // Primary key (tidsordnet, genereret i applikationen - muliggør batch INSERT)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,35 @@
+package dk.bilensven.model;
+
+// Beløb som heltal i øre (minor units) - ingen afrundingsfejl i database eller sortering
+// API'et bruger stadig kroner som decimaltal (fx 199.99), konvertering sker her
+public final class Money {
+
+    public static final int ORE_PER_KRONE = 100;
+
+    // Største beløb der kan repræsenteres præcist som double i øre (2^53)
+    private static final double MAX_ORE = 9_007_199_254_740_992.0;
+
+    private Money() {
+    }
+
+    // Kroner → øre (199.99 → 19999)
+    public static long toOre(double kroner) {
+        return Math.round(kroner * ORE_PER_KRONE);
+    }
+
+    // Øre → kroner (19999 → 199.99)
+    public static double toKroner(long ore) {
+        return (double) ore / ORE_PER_KRONE;
+    }
+
+    // Har beløbet max 2 decimaler? Beregnes aritmetisk uden String-allokering
+    // Tolerance på få ulp, da fx 199.99 * 100 = 19998.999999999996 i double
+    public static boolean hasAtMostTwoDecimals(double kroner) {
+        double ore = kroner * ORE_PER_KRONE;
+        if (!Double.isFinite(ore) || Math.abs(ore) > MAX_ORE) {
+            return false;
+        }
+        double rounded = Math.rint(ore);
+        return Math.abs(ore - rounded) <= 4 * Math.ulp(rounded);
+    }
+}
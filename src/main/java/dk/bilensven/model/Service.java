@@ -1,21 +1,26 @@
 package dk.bilensven.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 // JPA Entity for ydelser som værkstedet tilbyder
 @Entity
+// Second-level cache (hibernate-cache.conf) - READ_WRITE: opdateres/ugyldiggøres ved save i samme JVM
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "services")
 @Table(name = "services")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Service extends BaseEntity {  // Arver createdAt + updatedAt
 
-    // Primary key (auto-increment)
+    // Primary key (tidsordnet, genereret i applikationen - muliggør batch INSERT)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -24,8 +29,9 @@ public class Service extends BaseEntity {  // Arver createdAt + updatedAt
     @Column(length = 500)
     private String description;
 
-    @Column(nullable = false)
-    private Double price;
+    // Pris i øre (fixed-point) - API'et eksponerer kroner via Money
+    @Column(name = "price_ore", nullable = false)
+    private long priceOre;
 
     @Column(nullable = false)
     private boolean active = true;
@@ -2,6 +2,8 @@ package dk.bilensven.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,6 +11,9 @@ import lombok.ToString;
 
 // JPA Entity for admin login
 @Entity
+// Second-level cache (hibernate-cache.conf) - READ_WRITE: opdateres/ugyldiggøres ved save i samme JVM
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Getter
 @Setter
@@ -16,9 +21,9 @@ import lombok.ToString;
 @ToString(exclude = "password")  // SECURITY: Exclude password from logs
 public class User extends BaseEntity {  // Arver createdAt + updatedAt
 
-    // Primary key (auto-increment)
+    // Primary key (tidsordnet, genereret i applikationen - muliggør batch INSERT)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
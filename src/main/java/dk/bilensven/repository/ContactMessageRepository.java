@@ -1,14 +1,66 @@
 package dk.bilensven.repository;
 
+import dk.bilensven.dto.ContactMessageSummary;
 import dk.bilensven.model.ContactMessage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 // Arver standard CRUD operations fra JpaRepository
 public interface ContactMessageRepository extends JpaRepository<ContactMessage, Long> {
 
-    List<ContactMessage> findByReadFalse();
+    // Ulæste beskeder streamet direkte fra ResultSet (kræver aktiv transaction)
+    // Sortering i databasen via index (is_read, created_at, id), fetch size begrænser buffer
+    // MySQL: fetch size virker kun med useCursorFetch=true i datasource URL (ellers hele resultatet i heap)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select m from ContactMessage m
+            where m.read = false
+            order by m.createdAt desc, m.id desc
+            """)
+    Stream<ContactMessage> streamUnread();
 
-    List<ContactMessage> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    @Transactional(readOnly = true)
+    long countByReadFalse();
+
+    // Alle beskeder streamet til genopbygning af søgeindexet (kræver aktiv transaction)
+    // Samme fetch size / useCursorFetch forudsætning som streamUnread
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from ContactMessage m")
+    Stream<ContactMessage> streamAll();
+
+    // Keyset pagination: første side (nyeste først), optional read/unread filter
+    // Bruger index (created_at, id) / (is_read, created_at, id)
+    // Listeprojektion: kun preview af beskeden hentes (ikke hele 1000-tegns kolonnen)
+    @Query("""
+            select new dk.bilensven.dto.ContactMessageSummary(
+                m.id, m.name, m.email, m.phone, substring(m.message, 1, 120), m.read, m.createdAt)
+            from ContactMessage m
+            where (:read is null or m.read = :read)
+            order by m.createdAt desc, m.id desc
+            """)
+    List<ContactMessageSummary> findFirstPage(@Param("read") Boolean read, Limit limit);
+
+    // Keyset pagination: næste side efter cursor (createdAt, id)
+    @Query("""
+            select new dk.bilensven.dto.ContactMessageSummary(
+                m.id, m.name, m.email, m.phone, substring(m.message, 1, 120), m.read, m.createdAt)
+            from ContactMessage m
+            where (:read is null or m.read = :read)
+              and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+            order by m.createdAt desc, m.id desc
+            """)
+    List<ContactMessageSummary> findPageAfter(@Param("read") Boolean read,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+}
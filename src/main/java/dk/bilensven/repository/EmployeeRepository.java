@@ -1,12 +1,30 @@
 package dk.bilensven.repository;
 
+import dk.bilensven.dto.EmployeeSummary;
 import dk.bilensven.model.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    List<Employee> findByActiveTrue();
-    Optional<Employee> findByEmail(String email);
-}
\ No newline at end of file
+    // Aktive medarbejdere som projektion direkte fra SQL (ingen entities i persistence context)
+    // Resultatet caches som snapshot uden TTL (katalog cache / færdig-serialiseret JSON) under den nye
+    // generation efter hver write → læses fra primary, da en replica der halter ville låse gamle data fast
+    @Transactional
+    @Query("""
+            select new dk.bilensven.dto.EmployeeSummary(
+                e.id, e.name, e.position, e.email, e.phone, e.imageUrl, e.active, e.createdAt, e.updatedAt, e.version)
+            from Employee e
+            where e.active = true
+            """)
+    List<EmployeeSummary> findActiveSummaries();
+
+    @Transactional(readOnly = true)
+    long countByActiveTrue();
+
+    // Unikheds-check for bulk operationer (ét IN-query pr. batch)
+    List<Employee> findByEmailIn(Collection<String> emails);
+}
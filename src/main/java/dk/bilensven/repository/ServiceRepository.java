@@ -1,12 +1,30 @@
 package dk.bilensven.repository;
 
+import dk.bilensven.dto.ServiceSummary;
 import dk.bilensven.model.Service;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface ServiceRepository extends JpaRepository<Service, Long> {
-    List<Service> findByActiveTrue();
-    Optional<Service> findByName(String name);
+    // Aktive services som projektion direkte fra SQL (ingen entities i persistence context)
+    // Resultatet caches som snapshot uden TTL (katalog cache / færdig-serialiseret JSON) under den nye
+    // generation efter hver write → læses fra primary, da en replica der halter ville låse gamle data fast
+    @Transactional
+    @Query("""
+            select new dk.bilensven.dto.ServiceSummary(
+                s.id, s.name, s.description, s.priceOre, s.active, s.imageUrl, s.createdAt, s.updatedAt, s.version)
+            from Service s
+            where s.active = true
+            """)
+    List<ServiceSummary> findActiveSummaries();
+
+    @Transactional(readOnly = true)
+    long countByActiveTrue();
+
+    // Unikheds-check for bulk operationer (ét IN-query pr. batch)
+    List<Service> findByNameIn(Collection<String> names);
 }
@@ -1,10 +1,16 @@
 package dk.bilensven.repository;
 
 import dk.bilensven.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Query cache: id slås op i cachen, selve User hentes fra second-level cache
+    // Ugyldiggøres automatisk når users tabellen skrives via Hibernate
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 }
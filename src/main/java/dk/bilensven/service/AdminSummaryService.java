@@ -0,0 +1,81 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.AdminSummaryDTO;
+import dk.bilensven.repository.ContactMessageRepository;
+import dk.bilensven.repository.EmployeeRepository;
+import dk.bilensven.repository.ServiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Service layer for admin dashboard tællere
+// Fire COUNT queries køres samtidigt på application task executor
+@org.springframework.stereotype.Service
+@Slf4j
+public class AdminSummaryService {
+
+    private final ServiceRepository serviceRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ContactMessageRepository contactMessageRepository;
+    private final Executor executor;
+
+    // Hvor længe et beregnet summary genbruges (0 = ingen caching)
+    private final long cacheTtlNanos;
+
+    // Sidst beregnede summary + udløbstidspunkt (System.nanoTime)
+    private record CachedSummary(AdminSummaryDTO summary, long expiresAt) {}
+
+    private volatile CachedSummary cached;
+
+    public AdminSummaryService(ServiceRepository serviceRepository,
+                               EmployeeRepository employeeRepository,
+                               ContactMessageRepository contactMessageRepository,
+                               @Qualifier("applicationTaskExecutor") Executor executor,
+                               @Value("${app.admin.summary-cache-ttl:0s}") Duration cacheTtl) {
+        this.serviceRepository = serviceRepository;
+        this.employeeRepository = employeeRepository;
+        this.contactMessageRepository = contactMessageRepository;
+        this.executor = executor;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+    }
+
+    // Hent dashboard tællere (evt. fra cache)
+    public AdminSummaryDTO getSummary() {
+        CachedSummary current = cached;
+        if (current != null && System.nanoTime() - current.expiresAt() < 0) {
+            return current.summary();
+        }
+
+        log.debug("Computing admin summary");
+        AdminSummaryDTO summary = computeSummary();
+        if (cacheTtlNanos > 0) {
+            cached = new CachedSummary(summary, System.nanoTime() + cacheTtlNanos);
+        }
+        return summary;
+    }
+
+    // Kør alle COUNT queries parallelt og saml resultatet
+    private AdminSummaryDTO computeSummary() {
+        CompletableFuture<Long> activeServices =
+                CompletableFuture.supplyAsync(serviceRepository::countByActiveTrue, executor);
+        CompletableFuture<Long> activeEmployees =
+                CompletableFuture.supplyAsync(employeeRepository::countByActiveTrue, executor);
+        CompletableFuture<Long> totalMessages =
+                CompletableFuture.supplyAsync(contactMessageRepository::count, executor);
+        CompletableFuture<Long> unreadMessages =
+                CompletableFuture.supplyAsync(contactMessageRepository::countByReadFalse, executor);
+
+        CompletableFuture.allOf(activeServices, activeEmployees, totalMessages, unreadMessages).join();
+
+        return new AdminSummaryDTO(
+                activeServices.join(),
+                activeEmployees.join(),
+                totalMessages.join(),
+                unreadMessages.join()
+        );
+    }
+}
@@ -0,0 +1,212 @@
+package dk.bilensven.service;
+
+import dk.bilensven.config.ContactIngestionProperties;
+import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.dto.ContactMessageEvent;
+import dk.bilensven.dto.ContactMessageSummary;
+import dk.bilensven.exception.ServiceUnavailableException;
+import dk.bilensven.model.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Asynkron ingestion af kontaktbeskeder: bounded kø + baggrunds-writer med JDBC batches
+// Kun aktiv hvis app.contact.ingestion.mode=async - læses ved runtime (ikke @ConditionalOnProperty,
+// som AOT låser ved build), så mode kan skiftes med env var i samme image
+@Slf4j
+@Component
+public class ContactMessageIngestion implements SmartLifecycle, MeterBinder {
+
+    static final String INSERT_SQL = """
+            INSERT INTO contact_messages (id, name, email, phone, message, is_read, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, false, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactIngestionProperties properties;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<ContactMessageDTO> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // Metrics (sættes når MeterRegistry binder - batchTimer sættes sidst)
+    private volatile Counter writtenCounter;
+    private volatile Counter failedCounter;
+    private volatile Counter rejectedCounter;
+    private volatile Timer batchTimer;
+
+    public ContactMessageIngestion(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   ContactIngestionProperties properties,
+                                   SearchIndex searchIndex,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    public boolean isEnabled() {
+        return "async".equalsIgnoreCase(properties.getMode());
+    }
+
+    // Læg besked i kø (ikke-blokerende)
+    // Backpressure: fuld kø eller shutdown → 503 så klienten kan prøve igen
+    public void enqueue(ContactMessageDTO dto) {
+        if (!running || !queue.offer(dto)) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new ServiceUnavailableException("Vi modtager mange beskeder lige nu. Prøv igen om lidt.");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("contact-ingestion-writer")
+                .start(this::drainLoop);
+        log.info("Contact ingestion started (capacity={}, batchSize={})",
+                properties.getQueueCapacity(), properties.getBatchSize());
+    }
+
+    // Graceful shutdown: stop modtagelse, lad writer tømme køen, vent max shutdownTimeout
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Contact ingestion stopped with {} unwritten messages", queue.size());
+        } else {
+            log.info("Contact ingestion drained and stopped");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stoppes efter web serveren (ingen nye requests), men før DataSource lukkes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // Writer loop: vent på første besked, dræn op til batchSize, skriv som én batch
+    // Fortsætter efter stop() indtil køen er tom
+    private void drainLoop() {
+        List<ContactMessageDTO> batch = new ArrayList<>(properties.getBatchSize());
+        long pollMillis = properties.getPollInterval().toMillis();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ContactMessageDTO first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Contact ingestion writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Skriv batch i én JDBC batchUpdate (én transaction, ét round-trip med rewriteBatchedStatements)
+    // Fejler batchen, skrives rækkerne enkeltvis så én dårlig række ikke taber resten
+    void writeBatch(List<ContactMessageDTO> batch) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = batch.stream()
+                .map(dto -> new Object[]{TimeOrderedIdGenerator.nextId(),
+                        dto.getName(), dto.getEmail(), dto.getPhone(), dto.getMessage(), now, now})
+                .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+            rows.forEach(this::written);
+            record(batch.size(), 0, start);
+        } catch (RuntimeException batchError) {
+            log.warn("Batch insert of {} contact messages failed, retrying one by one", batch.size(), batchError);
+            int failed = 0;
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row);
+                    written(row);
+                } catch (RuntimeException rowError) {
+                    failed++;
+                    log.error("Dropping contact message from {}: {}", row[2], rowError.getMessage());
+                }
+            }
+            record(batch.size() - failed, failed, start);
+        }
+    }
+
+    // Committet række (id, name, email, phone, message, created_at, ...) → søgeindex + SSE event
+    private void written(Object[] row) {
+        searchIndex.indexMessage((Long) row[0], (String) row[1], (String) row[2], (String) row[4]);
+        ContactMessageSummary summary = new ContactMessageSummary((Long) row[0], (String) row[1], (String) row[2],
+                (String) row[3], ContactMessageService.preview((String) row[4]), false, (LocalDateTime) row[5]);
+        eventPublisher.publishEvent(new ContactMessageEvent(ContactMessageEvent.Type.CREATED, summary));
+    }
+
+    private void record(int written, int failed, long startNanos) {
+        log.debug("Wrote contact message batch: {} written, {} failed", written, failed);
+        if (batchTimer != null) {
+            batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            writtenCounter.increment(written);
+            failedCounter.increment(failed);
+        }
+    }
+
+    // Metrics: kø-dybde, batch latency, skrevne/fejlede/afviste beskeder
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!isEnabled()) {
+            return;
+        }
+        Gauge.builder("contact.ingestion.queue.depth", queue, BlockingQueue::size)
+                .register(registry);
+        writtenCounter = Counter.builder("contact.ingestion.messages").tag("result", "written").register(registry);
+        failedCounter = Counter.builder("contact.ingestion.messages").tag("result", "failed").register(registry);
+        rejectedCounter = Counter.builder("contact.ingestion.messages").tag("result", "rejected").register(registry);
+        batchTimer = Timer.builder("contact.ingestion.batch")
+                .description("Latency for én JDBC batch af kontaktbeskeder")
+                .register(registry);
+    }
+}
@@ -1,17 +1,29 @@
 package dk.bilensven.service;
 
 import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.dto.ContactMessageEvent;
+import dk.bilensven.dto.ContactMessageSummary;
+import dk.bilensven.dto.CursorPage;
+import dk.bilensven.dto.SearchHit;
 import dk.bilensven.exception.ResourceNotFoundException;
+import dk.bilensven.exception.ValidationException;
 import dk.bilensven.model.ContactMessage;
 import dk.bilensven.repository.ContactMessageRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 // Service layer for kontaktbesked business logic
 @Service
@@ -19,49 +31,130 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ContactMessageService {
 
+    // Max antal beskeder pr. side (beskytter mod ubegrænsede queries)
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ContactMessageRepository contactMessageRepository;
+    private final EntityManager entityManager;
+    private final SearchIndex searchIndex;
+    // Events leveres til SSE stream efter commit (ContactMessageStreamHub)
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Opaque cursor: base64url("createdAt|id") for sidste række på forrige side
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new ValidationException("Ugyldig cursor");
+            }
+        }
+    }
 
     // Gem ny kontaktbesked fra website formular
+    @Transactional
     public ContactMessageDTO save(ContactMessageDTO dto) {
-        log.info("Saving contact message from: {}", dto.getEmail());
+        log.debug("Saving contact message from: {}", dto.getEmail());
 
         ContactMessage message = toEntity(dto);
         message.setRead(false);  // Nye beskeder starter som ulæste
 
         ContactMessage saved = contactMessageRepository.save(message);
+        searchIndex.indexMessage(saved.getId(), saved.getName(), saved.getEmail(), saved.getMessage());
+        eventPublisher.publishEvent(new ContactMessageEvent(ContactMessageEvent.Type.CREATED, toSummary(saved)));
         return toDTO(saved);
     }
 
-    // Hent alle beskeder sorteret efter dato (nyeste først)
-    // FUNCTIONAL PROGRAMMING: Stream with map and collect
-    public List<ContactMessageDTO> getAllMessages() {
-        log.info("Fetching all contact messages");
+    // Hent én side beskeder sorteret efter dato (nyeste først)
+    // Keyset pagination på (createdAt, id) - filter og limit håndteres i databasen
+    // Rækkerne er projektioner med preview (ingen entities, ingen fulde beskeder)
+    @Transactional(readOnly = true)
+    public CursorPage<ContactMessageSummary> getMessagesPage(String cursor, int limit, Boolean read) {
+        log.debug("Fetching contact messages page (limit={}, read={})", limit, read);
+
+        if (limit < 1) {
+            throw new ValidationException("Limit skal være mindst 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+
+        // Hent én ekstra række for at vide om der findes en næste side
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<ContactMessageSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = contactMessageRepository.findFirstPage(read, fetchLimit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            rows = contactMessageRepository.findPageAfter(read, position.createdAt(), position.id(), fetchLimit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ContactMessageSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ContactMessageSummary last = items.get(pageSize - 1);
+            nextCursor = new Cursor(last.createdAt(), last.id()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
 
-        return contactMessageRepository.findAllByOrderByCreatedAtDesc().stream()
-                .map(this::toDTO)  // Entity → DTO transformation
-                .collect(Collectors.toList());
+    // Hent ulæste beskeder (admin notification) side for side
+    // Filter, sortering og limit sker i databasen - samme keyset pagination som getMessagesPage
+    @Transactional(readOnly = true)
+    public CursorPage<ContactMessageSummary> getUnreadMessages(String cursor, int limit) {
+        log.debug("Fetching unread contact messages");
+        return getMessagesPage(cursor, limit, false);
     }
 
-    // Hent kun ulæste beskeder (admin notification)
-    // FUNCTIONAL PROGRAMMING: Database filter + sorting + mapping
-    public List<ContactMessageDTO> getUnreadMessages() {
-        log.info("Fetching unread contact messages");
+    // Stream alle ulæste beskeder til consumer uden at bygge fulde lister i heap
+    // Hver entity detaches efter mapping, så persistence context ikke vokser
+    @Transactional(readOnly = true)
+    public void streamUnreadMessages(Consumer<ContactMessageDTO> consumer) {
+        log.debug("Streaming unread contact messages");
+
+        try (Stream<ContactMessage> messages = contactMessageRepository.streamUnread()) {
+            messages.forEach(message -> {
+                consumer.accept(toDTO(message));
+                entityManager.detach(message);
+            });
+        }
+    }
+
+    // Hent én besked med fuld tekst (listerne indeholder kun preview)
+    @Transactional(readOnly = true)
+    public ContactMessageDTO getById(Long id) {
+        log.debug("Fetching contact message {}", id);
+
+        ContactMessage message = contactMessageRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ContactMessage", id));
 
-        return contactMessageRepository.findByReadFalse().stream()
-                .sorted(Comparator.comparing(ContactMessage::getCreatedAt).reversed())
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTO(message);
     }
 
     // Marker besked som læst
+    @Transactional
     public void markAsRead(Long id) {
         log.info("Marking message {} as read", id);
 
         ContactMessage message = contactMessageRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("ContactMessage", id));
 
+        // Allerede læst: ingen ændring, intet event
+        if (message.isRead()) {
+            return;
+        }
         message.setRead(true);
         contactMessageRepository.save(message);
+        eventPublisher.publishEvent(new ContactMessageEvent(ContactMessageEvent.Type.READ, toSummary(message)));
     }
 
     // Slet besked permanent
@@ -73,7 +166,8 @@ public class ContactMessageService {
                 .orElseThrow(() -> new ResourceNotFoundException("ContactMessage", id));
 
         contactMessageRepository.delete(message);
-        log.info("Message {} deleted successfully", id);
+        searchIndex.remove(SearchHit.Type.MESSAGE, id);
+        eventPublisher.publishEvent(new ContactMessageEvent(ContactMessageEvent.Type.DELETED, toSummary(message)));
     }
 
     // Konverter Entity → DTO (for API responses)
@@ -90,6 +184,17 @@ public class ContactMessageService {
         return dto;
     }
 
+    // Konverter Entity → listeprojektion (samme preview som findFirstPage)
+    private static ContactMessageSummary toSummary(ContactMessage message) {
+        return new ContactMessageSummary(message.getId(), message.getName(), message.getEmail(),
+                message.getPhone(), preview(message.getMessage()), message.isRead(), message.getCreatedAt());
+    }
+
+    // De første 120 tegn af beskeden (som substring(m.message, 1, 120) i listequeries)
+    static String preview(String message) {
+        return message != null && message.length() > 120 ? message.substring(0, 120) : message;
+    }
+
     // Konverter DTO → Entity (for database persistence)
     private ContactMessage toEntity(ContactMessageDTO dto) {
         ContactMessage message = new ContactMessage();
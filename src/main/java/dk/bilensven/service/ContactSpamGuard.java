@@ -0,0 +1,158 @@
+package dk.bilensven.service;
+
+import dk.bilensven.config.ContactProtectionProperties;
+import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.exception.BusinessException;
+import dk.bilensven.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Spam-beskyttelse af kontaktformularen (før noget rammer ContactMessageRepository)
+// 1) Token bucket pr. klient-IP  2) Duplikat-filter på hash af (email, besked)
+@Slf4j
+@Component
+public class ContactSpamGuard implements MeterBinder {
+
+    private final ContactProtectionProperties properties;
+
+    // Én bucket pr. IP - hver bucket låser kun sig selv (ingen global lås)
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // Fingerprint → udløbstidspunkt (System.nanoTime)
+    private final Map<Long, Long> recentMessages = new ConcurrentHashMap<>();
+
+    private volatile Counter rateLimitedCounter;
+    private volatile Counter duplicateCounter;
+
+    public ContactSpamGuard(ContactProtectionProperties properties) {
+        this.properties = properties;
+    }
+
+    // Tjek request - kaster 429 ved rate limit og 409 ved duplikat
+    // Fingerprintet reserveres atomisk her (samtidige dubletter afvises) - fejler skrivningen bagefter,
+    // skal kalderen frigive det med release(), ellers afvises klientens retry som duplikat
+    public void check(String clientIp, ContactMessageDTO dto) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        TokenBucket bucket = buckets.computeIfAbsent(clientIp, ip -> new TokenBucket(properties.getBurst(), now));
+        long waitNanos = bucket.tryConsume(now, properties.getBurst(), refillNanosPerToken());
+        if (waitNanos > 0) {
+            increment(rateLimitedCounter);
+            throw new TooManyRequestsException("Du har sendt for mange beskeder. Prøv igen om lidt.",
+                    Duration.ofNanos(waitNanos));
+        }
+
+        long fingerprint = fingerprint(dto.getEmail(), dto.getMessage());
+        long expiresAt = now + properties.getDuplicateWindow().toNanos();
+        Long previous = recentMessages.putIfAbsent(fingerprint, expiresAt);
+        if (previous != null) {
+            // Udløbet fingerprint må erstattes (replace er atomisk mod samtidige requests)
+            if (previous - now > 0 || !recentMessages.replace(fingerprint, previous, expiresAt)) {
+                increment(duplicateCounter);
+                throw new BusinessException("Beskeden er allerede modtaget");
+            }
+        }
+    }
+
+    // Frigiv fingerprint fra check() - beskeden blev ikke gemt/lagt i kø (fx 503 fuld kø eller databasefejl)
+    public void release(ContactMessageDTO dto) {
+        if (properties.isEnabled()) {
+            recentMessages.remove(fingerprint(dto.getEmail(), dto.getMessage()));
+        }
+    }
+
+    // Fjern inaktive buckets og udløbne fingerprints hvert minut (bounded hukommelse)
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        int bucketsBefore = buckets.size();
+        int messagesBefore = recentMessages.size();
+
+        buckets.values().removeIf(bucket -> bucket.idleSince(now) > idleNanos);
+        recentMessages.values().removeIf(expiresAt -> expiresAt - now <= 0);
+
+        log.debug("Evicted {} rate limit buckets and {} message fingerprints",
+                bucketsBefore - buckets.size(), messagesBefore - recentMessages.size());
+    }
+
+    private long refillNanosPerToken() {
+        return properties.getRefillPeriod().toNanos() / Math.max(1, properties.getRefillTokens());
+    }
+
+    // 64-bit fingerprint: SHA-256 af normaliseret email + besked
+    private static long fingerprint(String email, String message) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT) + '\n' + message.trim();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    // Metrics: afviste requests pr. årsag + antal trackede klienter
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("contact.protection.tracked.clients", buckets, Map::size)
+                .register(registry);
+        rateLimitedCounter = Counter.builder("contact.rejected").tag("reason", "rate_limit").register(registry);
+        duplicateCounter = Counter.builder("contact.rejected").tag("reason", "duplicate").register(registry);
+    }
+
+    // Token bucket for én klient
+    // Tokens refilles lazy ved næste forbrug ud fra forløbet tid
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefill;
+        private volatile long lastSeen;
+
+        TokenBucket(int burst, long now) {
+            this.tokens = burst;
+            this.lastRefill = now;
+            this.lastSeen = now;
+        }
+
+        // 0 = token brugt, ellers nanosekunder til næste token
+        synchronized long tryConsume(long now, int burst, long refillNanosPerToken) {
+            lastSeen = now;
+            if (refillNanosPerToken > 0) {
+                tokens = Math.min(burst, tokens + (double) (now - lastRefill) / refillNanosPerToken);
+            }
+            lastRefill = now;
+            if (tokens < 1) {
+                return Math.max(1, (long) ((1 - tokens) * refillNanosPerToken));
+            }
+            tokens -= 1;
+            return 0;
+        }
+
+        long idleSince(long now) {
+            return now - lastSeen;
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package dk.bilensven.service;
 
+import dk.bilensven.dto.BulkItemResult;
+import dk.bilensven.dto.BulkOperation;
+import dk.bilensven.dto.BulkRequest;
+import dk.bilensven.dto.BulkResult;
 import dk.bilensven.dto.EmployeeDTO;
-import dk.bilensven.exception.BusinessException;
+import dk.bilensven.dto.EmployeeSummary;
 import dk.bilensven.exception.ResourceNotFoundException;
 import dk.bilensven.model.Employee;
 import dk.bilensven.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // Service layer for medarbejder business logic
@@ -22,21 +35,32 @@ public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
 
+    // Bumpes ved create/update/delete (bruges til ETags)
+    private final DataVersion version = new DataVersion();
+
+    // Nuværende data-version for medarbejdere
+    public long getVersion() {
+        return version.current();
+    }
+
     // Hent alle aktive medarbejdere (sorteret alfabetisk)
     // FUNCTIONAL PROGRAMMING: Stream operations with database filter
+    // Projektion direkte fra SQL - ingen managed entities eller dirty checking
+    // Ikke readOnly: listen caches som JSON under den aktuelle version → skal læses fra primary
     public List<EmployeeDTO> getAllActive() {
-        log.info("Fetching all active employees");
+        log.debug("Fetching all active employees");
 
-        return employeeRepository.findByActiveTrue().stream()
-                .sorted(Comparator.comparing(Employee::getName))
-                .map(this::toDTO)  // Entity → DTO transformation
+        return employeeRepository.findActiveSummaries().stream()
+                .sorted(Comparator.comparing(EmployeeSummary::name))
+                .map(this::toDTO)  // Projektion → DTO transformation
                 .collect(Collectors.toList());
     }
 
     // Hent specifik medarbejder ved ID
     // FUNCTIONAL PROGRAMMING: Optional for null safety
+    @Transactional(readOnly = true)
     public EmployeeDTO getById(Long id) {
-        log.info("Fetching employee with id: {}", id);
+        log.debug("Fetching employee with id: {}", id);
 
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", id));
@@ -45,36 +69,35 @@ public class EmployeeService {
     }
 
     // Opret ny medarbejder
-    // Business rule: Email skal være unique
+    // Business rule: Email skal være unique (UNIQUE constraint)
+    @Transactional
     public EmployeeDTO create(EmployeeDTO dto) {
         log.info("Creating new employee: {}", dto.getName());
 
-        Optional<Employee> existing = employeeRepository.findByEmail(dto.getEmail());
-        if (existing.isPresent()) {
-            throw new BusinessException("Employee with email " + dto.getEmail() + " already exists");
-        }
-
         Employee employee = toEntity(dto);
         employee.setActive(true);  // Nye medarbejdere starter som aktive
 
-        Employee saved = employeeRepository.save(employee);
+        // Flush nu: en email der allerede findes afvises af databasen → 409
+        Employee saved;
+        try {
+            saved = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Employee with email " + dto.getEmail() + " already exists");
+        }
+        version.bump();
         return toDTO(saved);
     }
 
     // Opdater eksisterende medarbejder
+    // Optimistic locking: dto.version (If-Match) skal være den gemte version, ellers 412
+    @Transactional
     public EmployeeDTO update(Long id, EmployeeDTO dto) {
         log.info("Updating employee with id: {}", id);
 
+        // Serveres fra second-level cache i normal drift - eneste database statement er UPDATE'en
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", id));
-
-        // Check email uniqueness hvis email ændres
-        if (!employee.getEmail().equals(dto.getEmail())) {
-            Optional<Employee> existing = employeeRepository.findByEmail(dto.getEmail());
-            if (existing.isPresent()) {
-                throw new BusinessException("Email " + dto.getEmail() + " is already in use");
-            }
-        }
+        OptimisticLocks.check("Employee", id, employee.getVersion(), dto.getVersion());
 
         // Update fields
         employee.setName(dto.getName());
@@ -83,12 +106,21 @@ public class EmployeeService {
         employee.setPhone(dto.getPhone());
         employee.setImageUrl(dto.getImageUrl());
 
-        Employee updated = employeeRepository.save(employee);
+        // Flush nu: UPDATE ... WHERE id = ? AND version = ?
+        // En email der tilhører en anden medarbejder → 409, en samtidig ændring → 412
+        Employee updated;
+        try {
+            updated = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Email " + dto.getEmail() + " is already in use");
+        }
+        version.bump();
         return toDTO(updated);
     }
 
     // Slet medarbejder (soft delete - mark as inactive)
     // Data bevares for historik og audit trail
+    @Transactional
     public void delete(Long id) {
         log.info("Deleting (soft) employee with id: {}", id);
 
@@ -97,6 +129,116 @@ public class EmployeeService {
 
         employee.setActive(false);
         employeeRepository.save(employee);
+        version.bump();
+    }
+
+    // Bulk create/update/soft-delete i én transaction
+    // Ét IN-query for id'er + ét for emails; fejl rapporteres pr. operation, resten skrives med JDBC batching
+    @Transactional
+    public BulkResult bulk(List<BulkOperation<EmployeeDTO>> operations) {
+        log.info("Bulk operation on {} employees", operations.size());
+
+        Map<Long, Employee> existingById = employeeRepository.findAllById(BulkRequest.referencedIds(operations))
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        // Email → ejer (id, eller negativt operation-index for nye medarbejdere i samme batch)
+        Set<String> emails = operations.stream()
+                .map(BulkOperation::getData)
+                .filter(Objects::nonNull)
+                .map(EmployeeDTO::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Long> emailOwners = employeeRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(Employee::getEmail, Employee::getId));
+        // Emails frigivet af en ændring tidligere i batchen (operationer udføres i rækkefølge)
+        Set<String> freedEmails = new HashSet<>();
+        // Version tjekkes mod tilstanden før batchen - en flush undervejs tæller @Version op
+        Map<Long, Long> versions = new HashMap<>();
+        existingById.values().forEach(employee -> versions.put(employee.getId(), employee.getVersion()));
+
+        List<BulkItemResult> results = new ArrayList<>(operations.size());
+        Map<Integer, Employee> created = new LinkedHashMap<>();
+        List<Employee> changed = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BulkOperation<EmployeeDTO> operation = operations.get(i);
+            EmployeeDTO dto = operation.getData();
+            Employee employee = operation.getAction() == BulkOperation.Action.CREATE
+                    ? null
+                    : existingById.get(operation.getId());
+
+            if (operation.getAction() != BulkOperation.Action.CREATE && employee == null) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 404, "Employee not found"));
+                continue;
+            }
+            if (operation.getAction() == BulkOperation.Action.DELETE) {
+                employee.setActive(false);
+                changed.add(employee);
+                results.add(BulkItemResult.success(i, employee.getId(), 204));
+                continue;
+            }
+
+            // create/update: version + unik email (også på tværs af operationer i batchen)
+            if (dto == null) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 400, "Data is required"));
+                continue;
+            }
+            if (employee != null && dto.getVersion() != null && !dto.getVersion().equals(versions.get(employee.getId()))) {
+                results.add(BulkItemResult.failure(i, employee.getId(), 412,
+                        OptimisticLocks.message("Employee", employee.getId())));
+                continue;
+            }
+            Long owner = employee != null ? employee.getId() : -1L - i;
+            if (dto.getEmail() != null) {
+                if (emailOwners.containsKey(dto.getEmail()) && !emailOwners.get(dto.getEmail()).equals(owner)) {
+                    results.add(BulkItemResult.failure(i, operation.getId(), 409,
+                            "Email " + dto.getEmail() + " is already in use"));
+                    continue;
+                }
+                if (freedEmails.remove(dto.getEmail())) {
+                    // Ændringen der frigav emailen skal i databasen før den genbruges (UNIQUE constraint)
+                    saveAllAndFlush(changed);
+                }
+                emailOwners.put(dto.getEmail(), owner);
+            }
+            if (employee != null && employee.getEmail() != null && !employee.getEmail().equals(dto.getEmail())) {
+                emailOwners.remove(employee.getEmail(), owner);
+                freedEmails.add(employee.getEmail());
+            }
+
+            if (employee == null) {
+                employee = toEntity(dto);
+                employee.setActive(true);
+                created.put(i, employee);
+                results.add(null);  // id kendes først efter saveAll
+            } else {
+                employee.setName(dto.getName());
+                employee.setPosition(dto.getPosition());
+                employee.setEmail(dto.getEmail());
+                employee.setPhone(dto.getPhone());
+                employee.setImageUrl(dto.getImageUrl());
+                results.add(BulkItemResult.success(i, employee.getId(), 200));
+            }
+            changed.add(employee);
+        }
+
+        if (!changed.isEmpty()) {
+            saveAllAndFlush(changed);
+            version.bump();
+        }
+        created.forEach((index, employee) -> results.set(index, BulkItemResult.success(index, employee.getId(), 201)));
+
+        return BulkResult.of(results);
+    }
+
+    // Emails er tjekket i bulk; en samtidig write kan stadig ramme UNIQUE constraint → 409 for hele batchen
+    private void saveAllAndFlush(List<Employee> employees) {
+        try {
+            employeeRepository.saveAllAndFlush(employees);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Email already in use (changed concurrently), retry the batch");
+        }
     }
 
     // Konverter Entity → DTO (for API responses)
@@ -111,9 +253,17 @@ public class EmployeeService {
         dto.setActive(employee.isActive());
         dto.setCreatedAt(employee.getCreatedAt());
         dto.setUpdatedAt(employee.getUpdatedAt());
+        dto.setVersion(employee.getVersion());
         return dto;
     }
 
+    // Konverter read-only projektion → DTO (listevisning)
+    private EmployeeDTO toDTO(EmployeeSummary summary) {
+        return new EmployeeDTO(summary.id(), summary.name(), summary.position(), summary.email(),
+                summary.phone(), summary.imageUrl(), summary.active(), summary.createdAt(), summary.updatedAt(),
+                summary.version());
+    }
+
     // Konverter DTO → Entity (for database persistence)
     private Employee toEntity(EmployeeDTO dto) {
         Employee employee = new Employee();
@@ -0,0 +1,24 @@
+package dk.bilensven.service;
+
+import dk.bilensven.exception.PreconditionFailedException;
+
+import java.util.Objects;
+
+// Optimistic locking: klientens forventede version (If-Match eller dto.version) mod den gemte
+// Tjekkes før ændringen, så en forældet PUT afvises uden at skrive - selve UPDATE'en bærer
+// stadig WHERE version = ? (@Version) og fanger en samtidig write mellem load og flush
+final class OptimisticLocks {
+
+    private OptimisticLocks() {}
+
+    // expected null = ubetinget update (klienten sendte hverken If-Match eller version)
+    static void check(String resource, Long id, Long stored, Long expected) {
+        if (expected != null && !Objects.equals(expected, stored)) {
+            throw new PreconditionFailedException(message(resource, id));
+        }
+    }
+
+    static String message(String resource, Long id) {
+        return resource + " " + id + " was modified by someone else, reload and try again";
+    }
+}
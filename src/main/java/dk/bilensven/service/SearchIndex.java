@@ -0,0 +1,332 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.SearchHit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over services (navn, beskrivelse) og kontaktbeskeder (navn, email, besked)
+// Term → dokumenter i et sorteret map, så prefix-søgning er et range scan (ingen LIKE '%...%')
+// Holdes opdateret af service-laget efter commit og genopbygges ved opstart (SearchService)
+@Component
+public class SearchIndex implements MeterBinder {
+
+    // Prefix-matching kræver mindst 2 tegn (ét tegn matcher kun hele ord)
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int SNIPPET_LENGTH = 120;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]+)\"");
+
+    // Et indexeret dokument: visningsfelter + termer (til fjernelse) + foldet tekst (til frase-søgning)
+    record Key(SearchHit.Type type, long id) {
+    }
+
+    record Document(Key key, String title, String subtitle, String snippet,
+                    Set<String> titleTerms, Set<String> terms, String text) {
+    }
+
+    private final NavigableMap<String, Set<Key>> postings = new TreeMap<>();
+    private final Map<Key, Document> documents = new HashMap<>();
+
+    // Få writes, mange reads: reads deler lock, writes er korte (kun de berørte termer)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Nøgler ændret mens rebuild kører - rebuild må ikke overskrive dem med ældre data
+    private Set<Key> touchedDuringRebuild;
+
+    // Indexer (eller re-indexer) en aktiv service
+    public void indexService(Long id, String name, String description) {
+        afterCommit(() -> put(serviceDocument(id, name, description)));
+    }
+
+    // Indexer en kontaktbesked
+    public void indexMessage(Long id, String name, String email, String message) {
+        afterCommit(() -> put(messageDocument(id, name, email, message)));
+    }
+
+    // Fjern dokument (slettet besked / deaktiveret service)
+    public void remove(SearchHit.Type type, Long id) {
+        afterCommit(() -> delete(new Key(type, id)));
+    }
+
+    // Søg: alle termer skal matche (AND), hver term matcher hele ord eller prefix
+    // "citerede fraser" skal desuden stå i rækkefølge i teksten
+    // Score: 2 pr. eksakt ord, 1 pr. prefix, +1 hvis det matchede ord står i titlen - nyeste først ved lige score
+    public List<SearchHit> search(String query, SearchHit.Type type, int limit) {
+        List<String> phrases = new ArrayList<>();
+        Matcher phraseMatcher = PHRASE.matcher(query);
+        while (phraseMatcher.find()) {
+            String phrase = String.join(" ", tokenize(phraseMatcher.group(1)));
+            if (!phrase.isEmpty()) {
+                phrases.add(phrase);
+            }
+        }
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Key, Integer> scores = null;
+            for (String term : terms) {
+                Map<Key, Integer> termScores = match(term, type);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((key, score) -> score + termScores.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (Map.Entry<Key, Integer> entry : scores.entrySet()) {
+                Document document = documents.get(entry.getKey());
+                if (containsPhrases(document, phrases)) {
+                    hits.add(new SearchHit(document.key().type(), document.key().id(), document.title(),
+                            document.subtitle(), document.snippet(), entry.getValue()));
+                }
+            }
+            hits.sort(Comparator.comparingInt(SearchHit::score).reversed()
+                    .thenComparing(SearchHit::id, Comparator.reverseOrder()));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rebuild: start tracking af samtidige ændringer (kaldes før data læses fra databasen)
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rebuild: indsæt dokumenter - nøgler ændret siden beginRebuild har allerede nyere data
+    int completeRebuild(Collection<Document> loaded) {
+        lock.writeLock().lock();
+        try {
+            int added = 0;
+            for (Document document : loaded) {
+                if (!touchedDuringRebuild.contains(document.key())) {
+                    putLocked(document);
+                    added++;
+                }
+            }
+            touchedDuringRebuild = null;
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rebuild fejlede: stop tracking - ellers vokser sættet ved hver senere write
+    // Indexet beholder de dokumenter der er indexeret løbende
+    void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Document serviceDocument(long id, String name, String description) {
+        List<String> titleTokens = tokenize(name);
+        List<String> tokens = new ArrayList<>(titleTokens);
+        tokens.addAll(tokenize(description));
+        return new Document(new Key(SearchHit.Type.SERVICE, id), name, null, snippet(description),
+                Set.copyOf(titleTokens), Set.copyOf(tokens), String.join(" ", tokens));
+    }
+
+    static Document messageDocument(long id, String name, String email, String message) {
+        List<String> titleTokens = tokenize(name);
+        List<String> tokens = new ArrayList<>(titleTokens);
+        tokens.addAll(tokenize(email));
+        tokens.addAll(tokenize(message));
+        return new Document(new Key(SearchHit.Type.MESSAGE, id), name, email, snippet(message),
+                Set.copyOf(titleTokens), Set.copyOf(tokens), String.join(" ", tokens));
+    }
+
+    // Dansk folding: små bogstaver, æ/ä → ae, ø/ö → oe, å → aa, øvrige accenter fjernes (é → e)
+    // Så "Århus"/"Aarhus" og "Søren"/"Soeren" matcher hinanden
+    public static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder folded = new StringBuilder(lower.length() + 8);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            switch (c) {
+                case 'æ', 'ä' -> folded.append("ae");
+                case 'ø', 'ö' -> folded.append("oe");
+                case 'å' -> folded.append("aa");
+                default -> folded.append(c);
+            }
+        }
+        return MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    // Split foldet tekst i ord (bogstaver/tal) - email "lars@bilensven.dk" → lars, bilensven, dk
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Score pr. dokument for én søgeterm (eksakt ord og/eller prefix)
+    private Map<Key, Integer> match(String term, SearchHit.Type type) {
+        Map<Key, Integer> scores = new HashMap<>();
+        NavigableMap<String, Set<Key>> candidates = term.length() < MIN_PREFIX_LENGTH
+                ? postings.subMap(term, true, term, true)
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Set<Key>> entry : candidates.entrySet()) {
+            int score = entry.getKey().equals(term) ? 2 : 1;
+            for (Key key : entry.getValue()) {
+                if (type == null || key.type() == type) {
+                    int bonus = documents.get(key).titleTerms().contains(entry.getKey()) ? 1 : 0;
+                    scores.merge(key, score + bonus, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static boolean containsPhrases(Document document, List<String> phrases) {
+        for (String phrase : phrases) {
+            String text = " " + document.text();
+            if (!text.contains(" " + phrase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            putLocked(document);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(document.key());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(Document document) {
+        removeLocked(document.key());
+        documents.put(document.key(), document);
+        for (String term : document.terms()) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(document.key());
+        }
+    }
+
+    private void delete(Key key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Key key) {
+        Document previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Set<Key> keys = postings.get(term);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static String snippet(String text) {
+        if (text == null || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SNIPPET_LENGTH);
+    }
+
+    // Inden for en transaction opdateres indexet først efter commit (rollback efterlader det urørt)
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // Metrics: antal dokumenter og distinkte termer i indexet
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.index.documents", this, SearchIndex::size)
+                .register(registry);
+        Gauge.builder("search.index.terms", this, index -> {
+            index.lock.readLock().lock();
+            try {
+                return index.postings.size();
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }).register(registry);
+    }
+}
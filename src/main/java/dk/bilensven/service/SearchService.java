@@ -0,0 +1,126 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.SearchHit;
+import dk.bilensven.exception.ValidationException;
+import dk.bilensven.model.ContactMessage;
+import dk.bilensven.repository.ContactMessageRepository;
+import dk.bilensven.repository.ServiceRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+// Service layer for søgning over services og kontaktbeskeder
+// Selve søgningen sker i SearchIndex (in-memory) - databasen læses kun ved genopbygning
+@org.springframework.stereotype.Service
+@Slf4j
+public class SearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    // Rå felter fra databasen (tokenizes parallelt efter load)
+    private record MessageRow(long id, String name, String email, String message) {}
+
+    private final SearchIndex searchIndex;
+    private final ServiceRepository serviceRepository;
+    private final ContactMessageRepository contactMessageRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+
+    public SearchService(SearchIndex searchIndex,
+                         ServiceRepository serviceRepository,
+                         ContactMessageRepository contactMessageRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.searchIndex = searchIndex;
+        this.serviceRepository = serviceRepository;
+        this.contactMessageRepository = contactMessageRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    // Søg i indexet - type null = både services og beskeder
+    public List<SearchHit> search(String query, SearchHit.Type type, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Søgetekst (q) er påkrævet");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("Søgetekst må max være " + MAX_QUERY_LENGTH + " tegn");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.clamp(limit, 1, MAX_LIMIT);
+        return searchIndex.search(query, type, size);
+    }
+
+    // Genopbyg indexet når appen er klar - kører i baggrunden, så opstart ikke venter
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        CompletableFuture.runAsync(this::rebuild, executor)
+                .exceptionally(e -> {
+                    log.error("Search index rebuild failed", e);
+                    return null;
+                });
+    }
+
+    // Services og beskeder læses samtidigt, dokumenter tokenizes parallelt
+    // Ændringer der committes undervejs vinder over de læste rækker (se SearchIndex.beginRebuild)
+    void rebuild() {
+        long start = System.nanoTime();
+        searchIndex.beginRebuild();
+        boolean completed = false;
+        try {
+            CompletableFuture<List<SearchIndex.Document>> services = CompletableFuture.supplyAsync(() ->
+                    serviceRepository.findActiveSummaries().parallelStream()
+                            .map(s -> SearchIndex.serviceDocument(s.id(), s.name(), s.description()))
+                            .toList(), executor);
+            CompletableFuture<List<SearchIndex.Document>> messages = CompletableFuture.supplyAsync(() ->
+                    loadMessages().parallelStream()
+                            .map(m -> SearchIndex.messageDocument(m.id(), m.name(), m.email(), m.message()))
+                            .toList(), executor);
+
+            List<SearchIndex.Document> documents = new ArrayList<>(services.join());
+            documents.addAll(messages.join());
+            int indexed = searchIndex.completeRebuild(documents);
+            completed = true;
+
+            log.info("Search index rebuilt: {} documents in {} ms",
+                    indexed, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            if (!completed) {
+                // Indlæsning fejlede - stop tracking af samtidige ændringer (fejlen logges af kalderen)
+                searchIndex.abortRebuild();
+                log.warn("Search index rebuild aborted after {} ms - index only contains live updates",
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    // Stream alle beskeder og behold kun de søgbare felter (entities detaches løbende)
+    private List<MessageRow> loadMessages() {
+        return readOnlyTransaction.execute(status -> {
+            List<MessageRow> rows = new ArrayList<>();
+            try (Stream<ContactMessage> stream = contactMessageRepository.streamAll()) {
+                stream.forEach(message -> {
+                    rows.add(new MessageRow(message.getId(), message.getName(),
+                            message.getEmail(), message.getMessage()));
+                    entityManager.detach(message);
+                });
+            }
+            return rows;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package dk.bilensven.service;
+
+import dk.bilensven.dto.ServiceDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// In-memory read-through cache for det aktive service-katalog
+// Holder immutable, færdigsorterede snapshots (navn + pris) indtil næste write
+@Component
+@Slf4j
+public class ServiceCatalogCache implements MeterBinder {
+
+    // Immutable snapshot: begge sorteringer bygges én gang pr. load
+    public record Snapshot(List<ServiceDTO> byName, List<ServiceDTO> byPrice) {
+        public Snapshot {
+            byName = List.copyOf(byName);
+            byPrice = List.copyOf(byPrice);
+        }
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    // Tælles op ved hver invalidering - bruges til at afvise stale loads
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Returner cached snapshot, eller load fra database ved miss
+    public Snapshot get(Supplier<Snapshot> loader) {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+
+        misses.increment();
+        long loadedAt = generation.get();
+        Snapshot loaded = loader.get();
+
+        // Publicer kun hvis ingen write er sket under load
+        // Re-check efter CAS: en samtidig invalidate kan have ramt mellem check og publish
+        if (generation.get() == loadedAt && current.compareAndSet(null, loaded)
+                && generation.get() != loadedAt) {
+            current.compareAndSet(loaded, null);
+        }
+        return loaded;
+    }
+
+    // Invalider cachen - kaldes af ServiceService ved create/update/delete
+    // Inden for en transaction invalideres igen efter commit, så ingen læser kan cache pre-commit data
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    // Nuværende generation (ændres ved hver invalidering)
+    public long generation() {
+        return generation.get();
+    }
+
+    private void evict() {
+        generation.incrementAndGet();
+        if (current.getAndSet(null) != null) {
+            evictions.increment();
+            log.debug("Service catalog cache evicted");
+        }
+    }
+
+    // Eksponer hit/miss/eviction counters via Micrometer (/actuator/metrics/cache.gets)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", "serviceCatalog")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", "serviceCatalog")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", "serviceCatalog")
+                .register(registry);
+    }
+}
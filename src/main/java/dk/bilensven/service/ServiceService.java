@@ -1,17 +1,32 @@
 package dk.bilensven.service;
 
+import dk.bilensven.dto.BulkItemResult;
+import dk.bilensven.dto.BulkOperation;
+import dk.bilensven.dto.BulkRequest;
+import dk.bilensven.dto.BulkResult;
+import dk.bilensven.dto.SearchHit;
 import dk.bilensven.dto.ServiceDTO;
-import dk.bilensven.exception.BusinessException;
+import dk.bilensven.dto.ServiceSummary;
 import dk.bilensven.exception.ResourceNotFoundException;
 import dk.bilensven.exception.ValidationException;
+import dk.bilensven.model.Money;
 import dk.bilensven.model.Service;
 import dk.bilensven.repository.ServiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // Service layer for service/ydelse business logic
@@ -21,32 +36,57 @@ import java.util.stream.Collectors;
 public class ServiceService {
 
     private final ServiceRepository serviceRepository;
+    private final ServiceCatalogCache catalogCache;
+    private final SearchIndex searchIndex;
 
     // Hent alle aktive services (sorteret alfabetisk)
-    // FUNCTIONAL PROGRAMMING: Stream with database filter, sorting, mapping
+    // Serveres fra ServiceCatalogCache - database rammes kun ved cache miss
+    // Ingen @Transactional her: et cache hit skal ikke låne en connection
+    // (findActiveSummaries er selv @Transactional → primary ved cache miss, aldrig en replica der halter)
     public List<ServiceDTO> getAllActive() {
-        log.info("Fetching all active services");
-
-        return serviceRepository.findByActiveTrue().stream()  //
-                .sorted(Comparator.comparing(Service::getName))
-                .map(this::toDTO)  // Entity → DTO transformation
-                .collect(Collectors.toList());
+        log.debug("Fetching all active services");
+        return catalogCache.get(this::loadCatalog).byName();
     }
 
     // Hent alle aktive services sorteret efter pris (billigste først)
-    // FUNCTIONAL PROGRAMMING: Lambda expression for custom sorting
     public List<ServiceDTO> getAllActiveSortedByPrice() {
-        log.info("Fetching all active services sorted by price");
+        log.debug("Fetching all active services sorted by price");
+        return catalogCache.get(this::loadCatalog).byPrice();
+    }
+
+    // Load katalog fra database og byg begge sorteringer én gang
+    // FUNCTIONAL PROGRAMMING: Stream with database filter, sorting, mapping
+    // Package-private: måles direkte af ServiceServiceBenchmark
+    ServiceCatalogCache.Snapshot loadCatalog() {
+        log.debug("Loading active service catalog from database");
+
+        // Projektion direkte fra SQL - ingen managed entities eller dirty checking
+        List<ServiceSummary> active = serviceRepository.findActiveSummaries().stream()
+                .sorted(Comparator.comparing(ServiceSummary::name))
+                .toList();
+
+        List<ServiceDTO> byName = active.stream()
+                .map(this::toDTO)  // Projektion → DTO transformation
+                .toList();
 
-        return serviceRepository.findByActiveTrue().stream()  //
-                .sorted((s1, s2) -> Double.compare(s1.getPrice(), s2.getPrice()))
+        // Primitive long sammenligning på øre (stabil sortering bevarer navneorden ved ens pris)
+        List<ServiceDTO> byPrice = active.stream()
+                .sorted(Comparator.comparingLong(ServiceSummary::priceOre))
                 .map(this::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+
+        return new ServiceCatalogCache.Snapshot(byName, byPrice);
+    }
+
+    // Nuværende katalog-version (bruges til ETags på GET /api/services)
+    public long getCatalogVersion() {
+        return catalogCache.generation();
     }
 
     // Hent specifik service ved ID
+    @Transactional(readOnly = true)
     public ServiceDTO getById(Long id) {
-        log.info("Fetching service with id: {}", id);
+        log.debug("Fetching service with id: {}", id);
 
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service", id));
@@ -55,16 +95,11 @@ public class ServiceService {
     }
 
     // Opret ny service
-    // Business rules: Unique name, max 2 decimals i pris
+    // Business rules: Unique name (UNIQUE constraint), max 2 decimals i pris
+    @Transactional
     public ServiceDTO create(ServiceDTO dto) {
         log.info("Creating new service: {}", dto.getName());
 
-        // Check if service name already exists (business rule)
-        Optional<Service> existing = serviceRepository.findByName(dto.getName());
-        if (existing.isPresent()) {
-            throw new BusinessException("Service with name '" + dto.getName() + "' already exists");
-        }
-
         // Validate price has max 2 decimal places
         if (!isValidPrice(dto.getPrice())) {
             throw new ValidationException("Price must have maximum 2 decimal places");
@@ -73,25 +108,29 @@ public class ServiceService {
         Service service = toEntity(dto);
         service.setActive(true);  // Nye services starter som aktive
 
-        Service saved = serviceRepository.save(service);
+        // Flush nu: et navn der allerede findes afvises af databasen → 409
+        Service saved;
+        try {
+            saved = serviceRepository.saveAndFlush(service);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Service with name '" + dto.getName() + "' already exists");
+        }
+        catalogCache.invalidate();
+        reindex(saved);
         return toDTO(saved);
     }
 
     // Opdater eksisterende service
-    // Business rules: Unique name (hvis ændret), max 2 decimals i pris
+    // Business rules: Unique name (UNIQUE constraint), max 2 decimals i pris
+    // Optimistic locking: dto.version (If-Match) skal være den gemte version, ellers 412
+    @Transactional
     public ServiceDTO update(Long id, ServiceDTO dto) {
         log.info("Updating service with id: {}", id);
 
+        // Serveres fra second-level cache i normal drift - eneste database statement er UPDATE'en
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service", id));
-
-        // Check name uniqueness hvis navn ændres
-        if (!service.getName().equals(dto.getName())) {
-            Optional<Service> existing = serviceRepository.findByName(dto.getName());
-            if (existing.isPresent()) {
-                throw new BusinessException("Service name '" + dto.getName() + "' already exists");
-            }
-        }
+        OptimisticLocks.check("Service", id, service.getVersion(), dto.getVersion());
 
         // Validate price has max 2 decimal places
         if (!isValidPrice(dto.getPrice())) {
@@ -101,14 +140,24 @@ public class ServiceService {
         // Update fields
         service.setName(dto.getName());
         service.setDescription(dto.getDescription());
-        service.setPrice(dto.getPrice());
+        service.setPriceOre(Money.toOre(dto.getPrice()));
 
-        Service updated = serviceRepository.save(service);
+        // Flush nu: UPDATE ... WHERE id = ? AND version = ?
+        // Et navn der tilhører en anden service → 409, en samtidig ændring → 412
+        Service updated;
+        try {
+            updated = serviceRepository.saveAndFlush(service);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Service name '" + dto.getName() + "' already exists");
+        }
+        catalogCache.invalidate();
+        reindex(updated);
         return toDTO(updated);
     }
 
     // Slet service
     // Data bevares for historik og fremtidige bookings
+    @Transactional
     public void delete(Long id) {
         log.info("Deleting (soft) service with id: {}", id);
 
@@ -117,38 +166,171 @@ public class ServiceService {
 
         service.setActive(false);
         serviceRepository.save(service);
+        catalogCache.invalidate();
+        reindex(service);
     }
 
-    // Valider at pris har max 2 decimaler
-    private boolean isValidPrice(Double price) {
-        if (price == null) return false;
-        String priceStr = String.valueOf(price);
-        int decimalIndex = priceStr.indexOf('.');
-        if (decimalIndex == -1) return true;
-        int decimals = priceStr.length() - decimalIndex - 1;
-        return decimals <= 2;
+    // Bulk create/update/soft-delete i én transaction
+    // Ét IN-query for id'er + ét for navne; fejl rapporteres pr. operation, resten skrives med JDBC batching
+    @Transactional
+    public BulkResult bulk(List<BulkOperation<ServiceDTO>> operations) {
+        log.info("Bulk operation on {} services", operations.size());
+
+        Map<Long, Service> existingById = serviceRepository.findAllById(BulkRequest.referencedIds(operations))
+                .stream()
+                .collect(Collectors.toMap(Service::getId, Function.identity()));
+
+        // Navn → ejer (id, eller negativt operation-index for nye services i samme batch)
+        Set<String> names = operations.stream()
+                .map(BulkOperation::getData)
+                .filter(Objects::nonNull)
+                .map(ServiceDTO::getName)
+                .collect(Collectors.toSet());
+        Map<String, Long> nameOwners = serviceRepository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(Service::getName, Service::getId));
+        // Navne frigivet af en omdøbning tidligere i batchen (operationer udføres i rækkefølge)
+        Set<String> freedNames = new HashSet<>();
+        // Version tjekkes mod tilstanden før batchen - en flush undervejs tæller @Version op
+        Map<Long, Long> versions = new HashMap<>();
+        existingById.values().forEach(service -> versions.put(service.getId(), service.getVersion()));
+
+        List<BulkItemResult> results = new ArrayList<>(operations.size());
+        Map<Integer, Service> created = new LinkedHashMap<>();
+        List<Service> changed = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BulkOperation<ServiceDTO> operation = operations.get(i);
+            ServiceDTO dto = operation.getData();
+            Service service = operation.getAction() == BulkOperation.Action.CREATE
+                    ? null
+                    : existingById.get(operation.getId());
+
+            if (operation.getAction() != BulkOperation.Action.CREATE && service == null) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 404, "Service not found"));
+                continue;
+            }
+            if (operation.getAction() == BulkOperation.Action.DELETE) {
+                service.setActive(false);
+                changed.add(service);
+                results.add(BulkItemResult.success(i, service.getId(), 204));
+                continue;
+            }
+
+            // create/update: validering + version + unikt navn (også på tværs af operationer i batchen)
+            if (dto == null) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 400, "Data is required"));
+                continue;
+            }
+            if (!isValidPrice(dto.getPrice())) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 400, "Price must have maximum 2 decimal places"));
+                continue;
+            }
+            if (service != null && dto.getVersion() != null && !dto.getVersion().equals(versions.get(service.getId()))) {
+                results.add(BulkItemResult.failure(i, service.getId(), 412,
+                        OptimisticLocks.message("Service", service.getId())));
+                continue;
+            }
+            Long owner = service != null ? service.getId() : -1L - i;
+            if (nameOwners.containsKey(dto.getName()) && !nameOwners.get(dto.getName()).equals(owner)) {
+                results.add(BulkItemResult.failure(i, operation.getId(), 409,
+                        "Service name '" + dto.getName() + "' already exists"));
+                continue;
+            }
+            if (freedNames.remove(dto.getName())) {
+                // Omdøbningen der frigav navnet skal i databasen før navnet genbruges (UNIQUE constraint)
+                saveAllAndFlush(changed);
+            }
+            nameOwners.put(dto.getName(), owner);
+            if (service != null && !service.getName().equals(dto.getName())) {
+                nameOwners.remove(service.getName(), owner);
+                freedNames.add(service.getName());
+            }
+
+            if (service == null) {
+                service = toEntity(dto);
+                service.setActive(true);
+                created.put(i, service);
+                results.add(null);  // id kendes først efter saveAll
+            } else {
+                service.setName(dto.getName());
+                service.setDescription(dto.getDescription());
+                service.setPriceOre(Money.toOre(dto.getPrice()));
+                results.add(BulkItemResult.success(i, service.getId(), 200));
+            }
+            changed.add(service);
+        }
+
+        if (!changed.isEmpty()) {
+            saveAllAndFlush(changed);
+            catalogCache.invalidate();
+            changed.forEach(this::reindex);
+        }
+        created.forEach((index, service) -> results.set(index, BulkItemResult.success(index, service.getId(), 201)));
+
+        return BulkResult.of(results);
+    }
+
+    // Navne er tjekket i bulk; en samtidig write kan stadig ramme UNIQUE constraint → 409 for hele batchen
+    private void saveAllAndFlush(List<Service> services) {
+        try {
+            serviceRepository.saveAllAndFlush(services);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.translate(e, "Service name already exists (changed concurrently), retry the batch");
+        }
+    }
+
+    // Søgeindexet indeholder kun aktive services (anvendes efter commit)
+    private void reindex(Service service) {
+        if (service.isActive()) {
+            searchIndex.indexService(service.getId(), service.getName(), service.getDescription());
+        } else {
+            searchIndex.remove(SearchHit.Type.SERVICE, service.getId());
+        }
+    }
+
+    // Valider at pris har max 2 decimaler (aritmetisk, ingen String allokering)
+    boolean isValidPrice(Double price) {
+        return price != null && Money.hasAtMostTwoDecimals(price);
     }
 
     // Konverter Entity → DTO (for API responses)
-    private ServiceDTO toDTO(Service service) {
+    ServiceDTO toDTO(Service service) {
         ServiceDTO dto = new ServiceDTO();
         dto.setId(service.getId());
         dto.setName(service.getName());
         dto.setDescription(service.getDescription());
-        dto.setPrice(service.getPrice());
+        dto.setPrice(Money.toKroner(service.getPriceOre()));
         dto.setActive(service.isActive());  // boolean → Boolean conversion
+        dto.setImageUrl(service.getImageUrl());
         dto.setCreatedAt(service.getCreatedAt());
         dto.setUpdatedAt(service.getUpdatedAt());
+        dto.setVersion(service.getVersion());
+        return dto;
+    }
+
+    // Konverter read-only projektion → DTO (katalog-listen)
+    ServiceDTO toDTO(ServiceSummary summary) {
+        ServiceDTO dto = new ServiceDTO();
+        dto.setId(summary.id());
+        dto.setName(summary.name());
+        dto.setDescription(summary.description());
+        dto.setPrice(Money.toKroner(summary.priceOre()));
+        dto.setActive(summary.active());
+        dto.setImageUrl(summary.imageUrl());
+        dto.setCreatedAt(summary.createdAt());
+        dto.setUpdatedAt(summary.updatedAt());
+        dto.setVersion(summary.version());
         return dto;
     }
 
     // Konverter DTO → Entity (for database persistence)
-    private Service toEntity(ServiceDTO dto) {
+    Service toEntity(ServiceDTO dto) {
         Service service = new Service();
         service.setName(dto.getName());
         service.setDescription(dto.getDescription());
-        service.setPrice(dto.getPrice());
-        // id, active, timestamps auto-handled
+        service.setPriceOre(Money.toOre(dto.getPrice()));
+        service.setImageUrl(dto.getImageUrl());
+        // id, active, timestamps, version auto-handled
         return service;
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package dk.bilensven.service;
+
+import dk.bilensven.exception.BusinessException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Unikhed (services.name, employees.email) håndhæves af databasens UNIQUE constraints
+// Ingen check-then-insert: writen flushes, og en overtrædelse oversættes til 409 (BusinessException)
+final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    // UNIQUE overtrædelse → BusinessException med forretningsbesked, andre integritetsfejl uændret
+    static RuntimeException translate(DataIntegrityViolationException ex, String message) {
+        if (ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+            return new BusinessException(message);
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,52 @@
+-- Baseline: skemaet som ddl-auto=update oprettede det før migrations (H2 variant af mysql/V1)
+
+CREATE TABLE contact_messages (
+    is_read    BOOLEAN       NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL,
+    id         BIGINT        GENERATED BY DEFAULT AS IDENTITY,
+    updated_at TIMESTAMP(6),
+    phone      VARCHAR(20),
+    name       VARCHAR(100)  NOT NULL,
+    message    VARCHAR(1000) NOT NULL,
+    email      VARCHAR(255)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE employees (
+    active     BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    id         BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    updated_at TIMESTAMP(6),
+    phone      VARCHAR(20),
+    name       VARCHAR(100) NOT NULL,
+    position   VARCHAR(100) NOT NULL,
+    email      VARCHAR(255),
+    image_url  VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE services (
+    active      BOOLEAN          NOT NULL,
+    price       DOUBLE PRECISION NOT NULL,
+    created_at  TIMESTAMP(6)     NOT NULL,
+    id          BIGINT           GENERATED BY DEFAULT AS IDENTITY,
+    updated_at  TIMESTAMP(6),
+    name        VARCHAR(100)     NOT NULL,
+    description VARCHAR(500),
+    image_url   VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    created_at TIMESTAMP(6)           NOT NULL,
+    id         BIGINT                 GENERATED BY DEFAULT AS IDENTITY,
+    updated_at TIMESTAMP(6),
+    username   VARCHAR(50)            NOT NULL,
+    password   VARCHAR(60)            NOT NULL,
+    role       ENUM ('ADMIN', 'USER') NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE employees ADD CONSTRAINT UKj9xgmd0ya5jmus09o0b8pqrpb UNIQUE (email);
+ALTER TABLE services ADD CONSTRAINT UKh4rqgjwnqidx6mvj4i22dxwxe UNIQUE (name);
+ALTER TABLE users ADD CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username);
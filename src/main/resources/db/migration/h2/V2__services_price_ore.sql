@@ -0,0 +1,9 @@
+-- Services: pris fra DOUBLE (kroner) til BIGINT (øre), se Money
+-- Idempotent som mysql/V2: en baselinet database kan allerede have price_ore (og mangle price)
+-- price tilføjes midlertidigt hvis den mangler, så UPDATE'en altid kan køre (NULL → rækken røres ikke)
+
+ALTER TABLE services ADD COLUMN IF NOT EXISTS price_ore BIGINT;
+ALTER TABLE services ADD COLUMN IF NOT EXISTS price DOUBLE PRECISION;
+UPDATE services SET price_ore = ROUND(price * 100) WHERE price IS NOT NULL;
+ALTER TABLE services ALTER COLUMN price_ore SET NOT NULL;
+ALTER TABLE services DROP COLUMN price;
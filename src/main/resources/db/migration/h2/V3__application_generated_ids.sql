@@ -0,0 +1,6 @@
+-- Id'er genereres i applikationen (TimeOrderedId) - identity kolonner bruges ikke længere
+
+ALTER TABLE contact_messages ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE employees ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE services ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,13 @@
+-- Indexes valgt ud fra repository queries (samme som mysql/V4)
+-- IF NOT EXISTS: idx_contact_messages_* kan allerede findes fra @Index + ddl-auto=update (før migrations)
+-- services.name, employees.email og users.username (findByUsername) har allerede unikke indexes fra V1
+
+-- Public lister: WHERE active = true (findActiveSummaries, countByActiveTrue)
+CREATE INDEX IF NOT EXISTS idx_services_active ON services (active);
+CREATE INDEX IF NOT EXISTS idx_employees_active ON employees (active);
+
+-- Admin indbakke: keyset pagination ORDER BY created_at DESC, id DESC (findFirstPage/findPageAfter)
+CREATE INDEX IF NOT EXISTS idx_contact_messages_created_id ON contact_messages (created_at, id);
+
+-- Read/unread filter med samme sortering + countByReadFalse + streamUnread
+CREATE INDEX IF NOT EXISTS idx_contact_messages_read_created_id ON contact_messages (is_read, created_at, id);
@@ -0,0 +1,7 @@
+-- Optimistic locking: version kolonne til @Version på BaseEntity (samme som mysql/V5)
+-- Eksisterende rækker starter på 0; contact_messages indsættes også via JDBC (ContactMessageIngestion) og bruger default
+
+ALTER TABLE services ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE employees ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE contact_messages ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
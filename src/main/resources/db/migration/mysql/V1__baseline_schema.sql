@@ -0,0 +1,54 @@
+-- Baseline: skemaet som ddl-auto=update oprettede det før migrations
+-- Eksisterende databaser springer denne over (spring.flyway.baseline-on-migrate, baseline = 1)
+
+CREATE TABLE contact_messages (
+    is_read    BIT           NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    updated_at DATETIME(6),
+    phone      VARCHAR(20),
+    name       VARCHAR(100)  NOT NULL,
+    message    VARCHAR(1000) NOT NULL,
+    email      VARCHAR(255)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE employees (
+    active     BIT          NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    updated_at DATETIME(6),
+    phone      VARCHAR(20),
+    name       VARCHAR(100) NOT NULL,
+    position   VARCHAR(100) NOT NULL,
+    email      VARCHAR(255),
+    image_url  VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE services (
+    active      BIT          NOT NULL,
+    price       FLOAT(53)    NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    updated_at  DATETIME(6),
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    image_url   VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    created_at DATETIME(6)            NOT NULL,
+    id         BIGINT                 NOT NULL AUTO_INCREMENT,
+    updated_at DATETIME(6),
+    username   VARCHAR(50)            NOT NULL,
+    password   VARCHAR(60)            NOT NULL,
+    role       ENUM ('ADMIN', 'USER') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Constraint navne er Hibernate's genererede navne (samme som i eksisterende databaser)
+ALTER TABLE employees ADD CONSTRAINT UKj9xgmd0ya5jmus09o0b8pqrpb UNIQUE (email);
+ALTER TABLE services ADD CONSTRAINT UKh4rqgjwnqidx6mvj4i22dxwxe UNIQUE (name);
+ALTER TABLE users ADD CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username);
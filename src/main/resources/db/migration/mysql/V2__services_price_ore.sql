@@ -0,0 +1,27 @@
+-- Services: pris fra DOUBLE (kroner) til BIGINT (øre), se Money
+-- Conditional: databaser baselines som V1, men kan allerede have price_ore - enten fordi
+-- docs/migrations/services-price-ore.sql er kørt, eller fordi ddl-auto=update tilføjede kolonnen (med 0)
+-- Hvert trin køres derfor kun hvis det mangler (MySQL har ingen ADD COLUMN IF NOT EXISTS)
+
+SET @has_price = (SELECT COUNT(*) FROM information_schema.columns
+                  WHERE table_schema = DATABASE() AND table_name = 'services' AND column_name = 'price');
+SET @has_price_ore = (SELECT COUNT(*) FROM information_schema.columns
+                      WHERE table_schema = DATABASE() AND table_name = 'services' AND column_name = 'price_ore');
+
+SET @sql = IF(@has_price_ore = 0, 'ALTER TABLE services ADD COLUMN price_ore BIGINT NULL', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Gammel price kolonne findes stadig: den er sandheden (ddl-auto=update satte price_ore til 0)
+SET @sql = IF(@has_price = 1, 'UPDATE services SET price_ore = ROUND(price * 100)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE services MODIFY price_ore BIGINT NOT NULL;
+
+SET @sql = IF(@has_price = 1, 'ALTER TABLE services DROP COLUMN price', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,7 @@
+-- Id'er genereres i applikationen (TimeOrderedId) - AUTO_INCREMENT bruges ikke længere
+-- Nye id'er ligger langt over eksisterende AUTO_INCREMENT værdier, så der er ingen kollisioner
+
+ALTER TABLE contact_messages MODIFY id BIGINT NOT NULL;
+ALTER TABLE employees MODIFY id BIGINT NOT NULL;
+ALTER TABLE services MODIFY id BIGINT NOT NULL;
+ALTER TABLE users MODIFY id BIGINT NOT NULL;
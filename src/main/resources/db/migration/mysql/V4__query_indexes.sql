@@ -0,0 +1,39 @@
+-- Indexes valgt ud fra repository queries
+-- services.name, employees.email og users.username (findByUsername) har allerede unikke indexes fra V1
+-- Conditional: idx_contact_messages_* kan allerede findes fra @Index + ddl-auto=update (før migrations)
+-- MySQL har ingen CREATE INDEX IF NOT EXISTS - hvert index oprettes kun hvis navnet mangler
+
+-- Public lister: WHERE active = true (findActiveSummaries, countByActiveTrue)
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'services'
+                 AND index_name = 'idx_services_active') = 0,
+              'CREATE INDEX idx_services_active ON services (active)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'employees'
+                 AND index_name = 'idx_employees_active') = 0,
+              'CREATE INDEX idx_employees_active ON employees (active)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Admin indbakke: keyset pagination ORDER BY created_at DESC, id DESC (findFirstPage/findPageAfter)
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'contact_messages'
+                 AND index_name = 'idx_contact_messages_created_id') = 0,
+              'CREATE INDEX idx_contact_messages_created_id ON contact_messages (created_at, id)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Read/unread filter med samme sortering + countByReadFalse + streamUnread
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'contact_messages'
+                 AND index_name = 'idx_contact_messages_read_created_id') = 0,
+              'CREATE INDEX idx_contact_messages_read_created_id ON contact_messages (is_read, created_at, id)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,7 @@
+-- Optimistic locking: version kolonne til @Version på BaseEntity
+-- Eksisterende rækker starter på 0; contact_messages indsættes også via JDBC (ContactMessageIngestion) og bruger default
+
+ALTER TABLE services ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE contact_messages ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
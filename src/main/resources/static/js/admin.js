@@ -8,17 +8,19 @@ const API_BASE_URL = 'http://localhost:8080/api';
 // DASHBOARD
 // ============================================
 
+let unreadMessagesCount = 0;
+
 async function loadDashboard() {
     try {
-        const [services, employees, messages] = await Promise.all([
-            fetch(`${API_BASE_URL}/services`).then(r => r.json()),
-            fetch(`${API_BASE_URL}/employees`).then(r => r.json()),
-            fetch(`${API_BASE_URL}/contact/messages`).then(r => r.json())
-        ]);
+        // Én request med COUNT queries i stedet for tre fulde lister
+        const summary = await fetch(`${API_BASE_URL}/admin/summary`).then(r => r.json());
+
+        document.getElementById('services-count').textContent = summary.activeServices;
+        document.getElementById('employees-count').textContent = summary.activeEmployees;
+        document.getElementById('messages-count').textContent = summary.totalMessages;
 
-        document.getElementById('services-count').textContent = services.length;
-        document.getElementById('employees-count').textContent = employees.length;
-        document.getElementById('messages-count').textContent = messages.length;
+        unreadMessagesCount = summary.unreadMessages;
+        updateUnreadBadge();
 
     } catch (error) {
         console.error('Error loading dashboard:', error);
@@ -116,12 +118,25 @@ async function saveService(event) {
         const url = id ? `${API_BASE_URL}/services/${id}` : `${API_BASE_URL}/services`;
         const method = id ? 'PUT' : 'POST';
 
+        const headers = { 'Content-Type': 'application/json' };
+        if (id) {
+            // Optimistic locking: kun gem hvis ingen andre har ændret servicen siden listen blev hentet
+            const current = servicesData.find(x => x.id === Number(id));
+            if (current) headers['If-Match'] = versionTag(current.version);
+        }
+
         const response = await fetch(url, {
             method: method,
-            headers: { 'Content-Type': 'application/json' },
+            headers: headers,
             body: JSON.stringify(data)
         });
 
+        if (response.status === 412) {
+            showAlert('Servicen er ændret af en anden bruger - listen er genindlæst, prøv igen', 'error');
+            closeServiceModal();
+            await loadServices();
+            return;
+        }
         if (!response.ok) throw new Error('Failed to save service');
 
         showAlert(id ? 'Service opdateret' : 'Service oprettet', 'success');
@@ -251,12 +266,25 @@ async function saveEmployee(event) {
         const url = id ? `${API_BASE_URL}/employees/${id}` : `${API_BASE_URL}/employees`;
         const method = id ? 'PUT' : 'POST';
 
+        const headers = { 'Content-Type': 'application/json' };
+        if (id) {
+            // Optimistic locking: kun gem hvis ingen andre har ændret medarbejderen siden listen blev hentet
+            const current = employeesData.find(x => x.id === Number(id));
+            if (current) headers['If-Match'] = versionTag(current.version);
+        }
+
         const response = await fetch(url, {
             method: method,
-            headers: { 'Content-Type': 'application/json' },
+            headers: headers,
             body: JSON.stringify(data)
         });
 
+        if (response.status === 412) {
+            showAlert('Medarbejderen er ændret af en anden bruger - listen er genindlæst, prøv igen', 'error');
+            closeEmployeeModal();
+            await loadEmployees();
+            return;
+        }
         if (!response.ok) throw new Error('Failed to save employee');
 
         showAlert(id ? 'Medarbejder opdateret' : 'Medarbejder oprettet', 'success');
@@ -297,6 +325,9 @@ async function deleteEmployee(id) {
 // ============================================
 
 let messagesData = [];
+let messagesNextCursor = null;
+
+const MESSAGES_PAGE_SIZE = 50;
 
 async function loadContactMessages() {
     try {
@@ -306,8 +337,10 @@ async function loadContactMessages() {
         if (loadingEl) loadingEl.style.display = 'block';
         if (tableEl) tableEl.style.display = 'none';
 
-        const response = await fetch(`${API_BASE_URL}/contact/messages`);
+        // Første side (nyeste først) - næste side hentes via cursor
+        const response = await fetch(`${API_BASE_URL}/contact/messages?limit=${MESSAGES_PAGE_SIZE}`);
         messagesData = await response.json();
+        messagesNextCursor = response.headers.get('X-Next-Cursor');
 
         if (loadingEl) loadingEl.style.display = 'none';
         if (tableEl) tableEl.style.display = 'table';
@@ -322,6 +355,80 @@ async function loadContactMessages() {
     }
 }
 
+async function loadMoreMessages() {
+    if (!messagesNextCursor) return;
+
+    try {
+        const response = await fetch(
+            `${API_BASE_URL}/contact/messages?limit=${MESSAGES_PAGE_SIZE}&cursor=${encodeURIComponent(messagesNextCursor)}`);
+        const page = await response.json();
+
+        messagesData = messagesData.concat(page);
+        messagesNextCursor = response.headers.get('X-Next-Cursor');
+
+        renderMessagesTable();
+        updateUnreadBadge();
+    } catch (error) {
+        console.error('Error loading more messages:', error);
+        showAlert('Kunne ikke hente flere beskeder', 'error');
+    }
+}
+
+// Live opdateringer via Server-Sent Events (ingen polling)
+// Tællere justeres lokalt ud fra event-typen; EventSource genforbinder selv efter afbrydelse
+let messageStream = null;
+
+function connectMessageStream() {
+    if (!window.EventSource || messageStream) return;
+
+    messageStream = new EventSource(`${API_BASE_URL}/contact/messages/stream`);
+
+    messageStream.addEventListener('created', event => {
+        const msg = JSON.parse(event.data);
+        if (messagesData.some(m => m.id === msg.id)) return;
+        messagesData.unshift(msg);
+        adjustMessageCounts(1, msg.read ? 0 : 1);
+        renderMessagesTable();
+    });
+
+    messageStream.addEventListener('read', event => {
+        const msg = JSON.parse(event.data);
+        const existing = messagesData.find(m => m.id === msg.id);
+        if (existing) existing.read = true;
+        adjustMessageCounts(0, -1);
+        renderMessagesTable();
+    });
+
+    messageStream.addEventListener('deleted', event => {
+        const msg = JSON.parse(event.data);
+        messagesData = messagesData.filter(m => m.id !== msg.id);
+        adjustMessageCounts(-1, msg.read ? 0 : -1);
+        renderMessagesTable();
+    });
+
+    // Efter en afbrydelse kan events være gået tabt - hent friske tal når forbindelsen er oppe igen
+    let reconnecting = false;
+    messageStream.onerror = () => { reconnecting = true; };
+    messageStream.onopen = () => {
+        if (reconnecting) {
+            reconnecting = false;
+            loadContactMessages();
+            loadDashboard();
+        }
+    };
+}
+
+function isMessageStreamOpen() {
+    return messageStream && messageStream.readyState === EventSource.OPEN;
+}
+
+function adjustMessageCounts(totalDelta, unreadDelta) {
+    const countEl = document.getElementById('messages-count');
+    if (countEl) countEl.textContent = Math.max(0, (parseInt(countEl.textContent, 10) || 0) + totalDelta);
+    unreadMessagesCount = Math.max(0, unreadMessagesCount + unreadDelta);
+    updateUnreadBadge();
+}
+
 function renderMessagesTable() {
     const tbody = document.querySelector('#messages-table tbody');
     if (!tbody) return;
@@ -333,7 +440,7 @@ function renderMessagesTable() {
             <td>${escapeHtml(msg.email)}</td>
             <td>${escapeHtml(msg.phone || '-')}</td>
             <td style="max-width: 300px; white-space: nowrap; overflow: hidden; text-overflow: ellipsis;">
-                ${escapeHtml(msg.message)}
+                ${escapeHtml(msg.preview)}
             </td>
             <td>${formatDate(msg.createdAt)}</td>
             <td>
@@ -348,10 +455,16 @@ function renderMessagesTable() {
             </td>
         </tr>
     `).join('');
+
+    const loadMoreBtn = document.getElementById('messages-load-more');
+    if (loadMoreBtn) {
+        loadMoreBtn.style.display = messagesNextCursor ? 'inline-block' : 'none';
+    }
 }
 
 function updateUnreadBadge() {
-    const unreadCount = messagesData.filter(m => !m.read).length;
+    // Tallet kommer fra /admin/summary (messagesData er kun de hentede sider)
+    const unreadCount = unreadMessagesCount;
     const badge = document.getElementById('unread-badge');
 
     if (unreadCount > 0 && badge) {
@@ -362,9 +475,18 @@ function updateUnreadBadge() {
     }
 }
 
-function viewMessage(id) {
-    const message = messagesData.find(m => m.id === id);
-    if (!message) return;
+async function viewMessage(id) {
+    // Listen indeholder kun preview - hent fuld besked
+    let message;
+    try {
+        const response = await fetch(`${API_BASE_URL}/contact/messages/${id}`);
+        if (!response.ok) throw new Error(`HTTP ${response.status}`);
+        message = await response.json();
+    } catch (error) {
+        console.error('Error loading message:', error);
+        showAlert('Kunne ikke hente beskeden', 'error');
+        return;
+    }
 
     const detailsEl = document.getElementById('message-details');
     detailsEl.innerHTML = `
@@ -410,8 +532,11 @@ async function markMessageAsRead(id) {
         if (!response.ok) throw new Error('Failed to mark as read');
 
         showAlert('Besked markeret som læst', 'success');
-        await loadContactMessages();
-        await loadDashboard();
+        // Med åben stream kommer ændringen som 'read' event
+        if (!isMessageStreamOpen()) {
+            await loadContactMessages();
+            await loadDashboard();
+        }
     } catch (error) {
         console.error('Error marking message as read:', error);
         showAlert('Kunne ikke markere besked som læst', 'error');
@@ -429,8 +554,11 @@ async function deleteMessage(id) {
         if (!response.ok) throw new Error('Failed to delete message');
 
         showAlert('Besked slettet', 'success');
-        await loadContactMessages();
-        await loadDashboard();
+        // Med åben stream kommer ændringen som 'deleted' event
+        if (!isMessageStreamOpen()) {
+            await loadContactMessages();
+            await loadDashboard();
+        }
     } catch (error) {
         console.error('Error deleting message:', error);
         showAlert('Kunne ikke slette besked', 'error');
@@ -453,6 +581,11 @@ function formatDate(dateString) {
 // UTILITY FUNCTIONS
 // ============================================
 
+// ETag for en entity-version (samme format som serveren sender på GET /{id})
+function versionTag(version) {
+    return `"v${version}"`;
+}
+
 function escapeHtml(text) {
     if (!text) return '';
     const div = document.createElement('div');
@@ -510,6 +643,7 @@ document.addEventListener('DOMContentLoaded', function() {
     loadServices();
     loadEmployees();
     loadContactMessages();
+    connectMessageStream();
 
     console.log('Admin panel initialized!');
 });
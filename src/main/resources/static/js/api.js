@@ -16,7 +16,9 @@ async function fetchAPI(endpoint, options = {}) {
 
         if (!response.ok) {
             const error = await response.json().catch(() => ({ message: 'API request failed' }));
-            throw new Error(error.message || `HTTP ${response.status}: ${response.statusText}`);
+            const apiError = new Error(error.message || `HTTP ${response.status}: ${response.statusText}`);
+            apiError.status = response.status;
+            throw apiError;
         }
 
         return await response.json();
@@ -47,8 +47,11 @@ document.addEventListener('DOMContentLoaded', () => {
             // Error
             let errorMessage = 'Kunne ikke sende besked. Prøv igen senere.';
 
-            if (error.message.includes('Too Many Requests')) {
+            if (error.status === 429) {
                 errorMessage = 'Du har sendt for mange beskeder. Prøv igen om lidt.';
+            } else if (error.status === 409) {
+                // Duplikat: samme besked er allerede modtaget
+                errorMessage = error.message;
             }
 
             errorMsg.textContent = errorMessage;
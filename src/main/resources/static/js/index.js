@@ -18,7 +18,9 @@ async function fetchAPI(endpoint, options = {}) {
 
         if (!response.ok) {
             const error = await response.json().catch(() => ({ message: 'API request failed' }));
-            throw new Error(error.message || `HTTP ${response.status}: ${response.statusText}`);
+            const apiError = new Error(error.message || `HTTP ${response.status}: ${response.statusText}`);
+            apiError.status = response.status;
+            throw apiError;
         }
 
         return await response.json();
@@ -134,8 +136,11 @@ document.addEventListener('DOMContentLoaded', () => {
             // Error
             let errorMessage = 'Kunne ikke sende besked. Prøv igen senere.';
 
-            if (error.message.includes('Too Many Requests')) {
+            if (error.status === 429) {
                 errorMessage = 'Du har sendt for mange beskeder. Prøv igen om lidt.';
+            } else if (error.status === 409) {
+                // Duplikat: samme besked er allerede modtaget
+                errorMessage = error.message;
             }
 
             errorMsg.textContent = errorMessage;
@@ -0,0 +1,59 @@
+package dk.bilensven;
+
+import dk.bilensven.config.ContactProtectionProperties;
+import dk.bilensven.controller.ContactMessageController;
+import dk.bilensven.controller.ContactMessageStreamHub;
+import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.exception.ServiceUnavailableException;
+import dk.bilensven.service.ContactMessageIngestion;
+import dk.bilensven.service.ContactMessageService;
+import dk.bilensven.service.ContactSpamGuard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactMessageControllerTest {
+
+    @Mock
+    private ContactMessageService contactMessageService;
+
+    @Mock
+    private ContactMessageIngestion ingestion;
+
+    @Mock
+    private ContactMessageStreamHub streamHub;
+
+    @Test
+    void submit_WhenQueueFull_ShouldAcceptRetryOfSameMessage() {
+        // Given - fuld kø første gang, plads ved retry
+        ContactSpamGuard spamGuard = new ContactSpamGuard(new ContactProtectionProperties());
+        ContactMessageController controller = new ContactMessageController(
+                contactMessageService, spamGuard, ingestion, JsonMapper.builder().build(), streamHub);
+        when(ingestion.isEnabled()).thenReturn(true);
+        doThrow(new ServiceUnavailableException("Kø fuld"))
+                .doNothing()
+                .when(ingestion).enqueue(any());
+
+        ContactMessageDTO dto = new ContactMessageDTO();
+        dto.setName("Test");
+        dto.setEmail("kunde@test.com");
+        dto.setMessage("Min bil larmer");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        // When
+        assertThrows(ServiceUnavailableException.class, () -> controller.submitContactForm(dto, request));
+        var retry = controller.submitContactForm(dto, request);
+
+        // Then - beskeden blev ikke modtaget første gang, så retry er ikke en duplikat
+        assertEquals(HttpStatus.ACCEPTED, retry.getStatusCode());
+        verify(ingestion, times(2)).enqueue(dto);
+    }
+}
@@ -0,0 +1,97 @@
+package dk.bilensven;
+
+import dk.bilensven.config.ContactIngestionProperties;
+import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.dto.ContactMessageEvent;
+import dk.bilensven.exception.ServiceUnavailableException;
+import dk.bilensven.service.ContactMessageIngestion;
+import dk.bilensven.service.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactMessageIngestionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ContactIngestionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ContactIngestionProperties();
+        properties.setMode("async");
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(10);
+        properties.setPollInterval(Duration.ofMillis(10));
+    }
+
+    @Test
+    void enqueue_WhenNotStarted_ShouldRejectWithServiceUnavailable() {
+        // Given
+        ContactMessageIngestion ingestion = newIngestion();
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class,
+                () -> ingestion.enqueue(message("a@test.com")));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_ShouldDrainQueuedMessagesInOneBatch() {
+        // Given
+        ContactMessageIngestion ingestion = newIngestion();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        // When
+        ingestion.start();
+        ingestion.enqueue(message("a@test.com"));
+        ingestion.enqueue(message("b@test.com"));
+        ingestion.stop();
+
+        // Then
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), rows.capture());
+        int written = rows.getAllValues().stream().mapToInt(List::size).sum();
+        assertEquals(2, written);
+        assertFalse(ingestion.isRunning());
+        verify(eventPublisher, times(2)).publishEvent(any(ContactMessageEvent.class));
+    }
+
+    private ContactMessageIngestion newIngestion() {
+        return new ContactMessageIngestion(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                new SearchIndex(), eventPublisher);
+    }
+
+    private ContactMessageDTO message(String email) {
+        ContactMessageDTO dto = new ContactMessageDTO();
+        dto.setName("Test");
+        dto.setEmail(email);
+        dto.setMessage("En testbesked til værkstedet");
+        return dto;
+    }
+}
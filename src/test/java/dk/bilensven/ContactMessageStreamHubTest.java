@@ -0,0 +1,61 @@
+package dk.bilensven;
+
+import dk.bilensven.config.ContactStreamProperties;
+import dk.bilensven.controller.ContactMessageStreamHub;
+import dk.bilensven.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactMessageStreamHubTest {
+
+    private ContactMessageStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        ContactStreamProperties properties = new ContactStreamProperties();
+        properties.setMaxSubscribers(2);
+        hub = new ContactMessageStreamHub(properties, JsonMapper.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hub.isRunning()) {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void subscribe_WhenNotStarted_ShouldRejectWithServiceUnavailable() {
+        assertThrows(ServiceUnavailableException.class, () -> hub.subscribe());
+    }
+
+    @Test
+    void subscribe_WhenLimitReached_ShouldRejectWithServiceUnavailable() {
+        // Given
+        hub.start();
+        hub.subscribe();
+        hub.subscribe();
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> hub.subscribe());
+        assertEquals(2, hub.subscriberCount());
+    }
+
+    @Test
+    void stop_ShouldCloseAllSubscribers() {
+        // Given
+        hub.start();
+        hub.subscribe();
+
+        // When
+        hub.stop();
+
+        // Then
+        assertEquals(0, hub.subscriberCount());
+        assertFalse(hub.isRunning());
+    }
+}
@@ -0,0 +1,86 @@
+package dk.bilensven;
+
+import dk.bilensven.config.ContactProtectionProperties;
+import dk.bilensven.dto.ContactMessageDTO;
+import dk.bilensven.exception.BusinessException;
+import dk.bilensven.exception.TooManyRequestsException;
+import dk.bilensven.service.ContactSpamGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactSpamGuardTest {
+
+    private ContactProtectionProperties properties;
+    private ContactSpamGuard spamGuard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ContactProtectionProperties();
+        properties.setBurst(2);
+        properties.setRefillTokens(1);
+        properties.setRefillPeriod(Duration.ofHours(1));
+        spamGuard = new ContactSpamGuard(properties);
+    }
+
+    @Test
+    void check_WhenBurstExceeded_ShouldThrowTooManyRequests() {
+        // Given
+        spamGuard.check("10.0.0.1", message("a@test.com", "Første besked til jer"));
+        spamGuard.check("10.0.0.1", message("a@test.com", "Anden besked til jer"));
+
+        // When & Then - Retry-After = tid til næste token (1 token pr. time)
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> spamGuard.check("10.0.0.1", message("a@test.com", "Tredje besked til jer")));
+        assertTrue(ex.getRetryAfter().compareTo(Duration.ofMinutes(59)) > 0);
+        assertTrue(ex.getRetryAfter().compareTo(Duration.ofHours(1)) <= 0);
+
+        // Anden klient har sin egen bucket
+        assertDoesNotThrow(() -> spamGuard.check("10.0.0.2", message("b@test.com", "Hej fra en anden")));
+    }
+
+    @Test
+    void check_WhenSameEmailAndMessageResubmitted_ShouldThrowBusinessException() {
+        // Given
+        spamGuard.check("10.0.0.1", message("a@test.com", "Min bil larmer"));
+
+        // When & Then (email normaliseres, så store bogstaver ikke omgår filteret)
+        assertThrows(BusinessException.class,
+                () -> spamGuard.check("10.0.0.2", message("A@Test.com ", "Min bil larmer")));
+    }
+
+    @Test
+    void release_ShouldAllowResubmitOfMessageThatWasNotStored() {
+        // Given
+        ContactMessageDTO dto = message("a@test.com", "Min bil larmer");
+        spamGuard.check("10.0.0.1", dto);
+
+        // When
+        spamGuard.release(dto);
+
+        // Then
+        assertDoesNotThrow(() -> spamGuard.check("10.0.0.1", dto));
+    }
+
+    @Test
+    void check_WhenDisabled_ShouldAllowEverything() {
+        // Given
+        properties.setEnabled(false);
+
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            assertDoesNotThrow(() -> spamGuard.check("10.0.0.1", message("a@test.com", "Samme besked igen")));
+        }
+    }
+
+    private ContactMessageDTO message(String email, String text) {
+        ContactMessageDTO dto = new ContactMessageDTO();
+        dto.setName("Test");
+        dto.setEmail(email);
+        dto.setMessage(text);
+        return dto;
+    }
+}
@@ -1,20 +1,27 @@
 package dk.bilensven;
 
+import dk.bilensven.dto.BulkOperation;
+import dk.bilensven.dto.BulkResult;
 import dk.bilensven.dto.EmployeeDTO;
+import dk.bilensven.dto.EmployeeSummary;
 import dk.bilensven.exception.BusinessException;
 import dk.bilensven.exception.ResourceNotFoundException;
 import dk.bilensven.model.Employee;
 import dk.bilensven.repository.EmployeeRepository;
 import dk.bilensven.service.EmployeeService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,18 +39,14 @@ class EmployeeServiceTest {
     @Test
     void getAllActive_ShouldReturnOnlyActiveEmployees() {
         // Given
-        Employee active1 = new Employee();
-        active1.setId(1L);
-        active1.setName("John Doe");
-        active1.setActive(true);
-
-        Employee active2 = new Employee();
-        active2.setId(3L);
-        active2.setName("Alice Active");
-        active2.setActive(true);
-
-        // ✅ FIXED: Mock findByActiveTrue() instead of findAll()
-        when(employeeRepository.findByActiveTrue())
+        EmployeeSummary active1 = new EmployeeSummary(
+                1L, "John Doe", "Mekaniker", null, null, null, true, null, null, 0L);
+
+        EmployeeSummary active2 = new EmployeeSummary(
+                3L, "Alice Active", "Mekaniker", null, null, null, true, null, null, 0L);
+
+        // Projektion direkte fra repository (ingen entities)
+        when(employeeRepository.findActiveSummaries())
                 .thenReturn(Arrays.asList(active1, active2));
 
         // When
@@ -52,7 +55,8 @@ class EmployeeServiceTest {
         // Then
         assertEquals(2, result.size());
         assertTrue(result.stream().allMatch(EmployeeDTO::getActive));
-        verify(employeeRepository).findByActiveTrue();  // ✅ Verify correct method
+        assertEquals("Alice Active", result.get(0).getName());
+        verify(employeeRepository).findActiveSummaries();
     }
 
     @Test
@@ -97,16 +101,13 @@ class EmployeeServiceTest {
         dto.setEmail("new@test.com");
         dto.setPosition("Developer");
 
-        when(employeeRepository.findByEmail(dto.getEmail()))
-                .thenReturn(Optional.empty());
-
         Employee savedEmployee = new Employee();
         savedEmployee.setId(1L);
         savedEmployee.setName(dto.getName());
         savedEmployee.setEmail(dto.getEmail());
         savedEmployee.setActive(true);
 
-        when(employeeRepository.save(any(Employee.class)))
+        when(employeeRepository.saveAndFlush(any(Employee.class)))
                 .thenReturn(savedEmployee);
 
         // When
@@ -116,8 +117,7 @@ class EmployeeServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertTrue(result.getActive());
-        verify(employeeRepository).findByEmail(dto.getEmail());
-        verify(employeeRepository).save(any(Employee.class));
+        verify(employeeRepository).saveAndFlush(any(Employee.class));
     }
 
     @Test
@@ -126,17 +126,15 @@ class EmployeeServiceTest {
         EmployeeDTO dto = new EmployeeDTO();
         dto.setEmail("existing@test.com");
 
-        Employee existing = new Employee();
-        existing.setEmail(dto.getEmail());
-
-        when(employeeRepository.findByEmail(dto.getEmail()))
-                .thenReturn(Optional.of(existing));
+        // Databasens UNIQUE constraint afviser emailen
+        when(employeeRepository.saveAndFlush(any(Employee.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key",
+                        new ConstraintViolationException("duplicate key", null, ConstraintKind.UNIQUE, "uk_email")));
 
         // When & Then
-        assertThrows(BusinessException.class,
+        BusinessException ex = assertThrows(BusinessException.class,
                 () -> employeeService.create(dto));
-        verify(employeeRepository).findByEmail(dto.getEmail());
-        verify(employeeRepository, never()).save(any());
+        assertTrue(ex.getMessage().contains(dto.getEmail()));
     }
 
     @Test
@@ -160,4 +158,77 @@ class EmployeeServiceTest {
         verify(employeeRepository).findById(id);
         verify(employeeRepository).save(employee);
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulk_WhenEmailTakenByOtherEmployee_ShouldRejectOnlyThatUpdate() {
+        // Given
+        Employee first = new Employee();
+        first.setId(1L);
+        first.setEmail("first@test.com");
+
+        Employee second = new Employee();
+        second.setId(2L);
+        second.setEmail("second@test.com");
+
+        EmployeeDTO takesSecondsEmail = new EmployeeDTO();
+        takesSecondsEmail.setName("First");
+        takesSecondsEmail.setPosition("Mekaniker");
+        takesSecondsEmail.setEmail("second@test.com");
+
+        EmployeeDTO keepsOwnEmail = new EmployeeDTO();
+        keepsOwnEmail.setName("Second Renamed");
+        keepsOwnEmail.setPosition("Værkfører");
+        keepsOwnEmail.setEmail("second@test.com");
+
+        when(employeeRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(employeeRepository.findByEmailIn(Set.of("second@test.com"))).thenReturn(List.of(second));
+
+        // When
+        BulkResult result = employeeService.bulk(List.of(
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 1L, takesSecondsEmail),
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 2L, keepsOwnEmail)));
+
+        // Then
+        assertEquals(409, result.items().get(0).status());
+        assertEquals(200, result.items().get(1).status());
+        assertEquals("first@test.com", first.getEmail());
+        assertEquals("Second Renamed", second.getName());
+        verify(employeeRepository).saveAllAndFlush(List.of(second));
+    }
+
+    @Test
+    void bulk_RenameChain_ShouldReuseEmailFreedEarlierInBatch() {
+        // Given
+        Employee first = new Employee();
+        first.setId(1L);
+        first.setEmail("first@test.com");
+
+        Employee second = new Employee();
+        second.setId(2L);
+        second.setEmail("second@test.com");
+
+        EmployeeDTO movesToNewEmail = new EmployeeDTO();
+        movesToNewEmail.setName("Second");
+        movesToNewEmail.setPosition("Værkfører");
+        movesToNewEmail.setEmail("new@test.com");
+
+        EmployeeDTO takesFreedEmail = new EmployeeDTO();
+        takesFreedEmail.setName("First");
+        takesFreedEmail.setPosition("Mekaniker");
+        takesFreedEmail.setEmail("second@test.com");
+
+        when(employeeRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(employeeRepository.findByEmailIn(Set.of("new@test.com", "second@test.com"))).thenReturn(List.of(second));
+
+        // When
+        BulkResult result = employeeService.bulk(List.of(
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 2L, movesToNewEmail),
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 1L, takesFreedEmail)));
+
+        // Then - ingen falsk 409: second har sluppet emailen tidligere i batchen
+        assertEquals(200, result.items().get(0).status());
+        assertEquals(200, result.items().get(1).status());
+        assertEquals("second@test.com", first.getEmail());
+        assertEquals("new@test.com", second.getEmail());
+    }
+}
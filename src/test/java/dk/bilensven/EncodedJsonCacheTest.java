@@ -0,0 +1,122 @@
+package dk.bilensven;
+
+import dk.bilensven.config.HttpCacheProperties;
+import dk.bilensven.controller.EmployeeController;
+import dk.bilensven.controller.EncodedJsonCache;
+import dk.bilensven.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EncodedJsonCacheTest {
+
+    private EncodedJsonCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EncodedJsonCache(JsonMapper.builder().build());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_WhenGenerationUnchanged_ShouldReuseEncodedBytes() throws IOException {
+        // Given
+        EncodedJsonCache.Payload first = cache.get("services", 1, () -> load("Olieskift"));
+
+        // When
+        EncodedJsonCache.Payload second = cache.get("services", 1, () -> load("Olieskift"));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("[\"Olieskift\"]", new String(first.identity(), StandardCharsets.UTF_8));
+        assertArrayEquals(first.identity(), gunzip(first.gzip()));
+    }
+
+    @Test
+    void get_WhenGenerationChanged_ShouldReEncode() {
+        // Given
+        cache.get("services", 1, () -> load("Olieskift"));
+
+        // When
+        EncodedJsonCache.Payload updated = cache.get("services", 2, () -> load("Bremser"));
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals("[\"Bremser\"]", new String(updated.identity(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(EncodedJsonCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(EncodedJsonCache.acceptsGzip("br;q=1.0, *;q=0.5"));
+        assertFalse(EncodedJsonCache.acceptsGzip("gzip;q=0, br"));
+        // Eksplicit gzip vinder over * uanset rækkefølge
+        assertFalse(EncodedJsonCache.acceptsGzip("*;q=0.5, gzip;q=0"));
+        assertTrue(EncodedJsonCache.acceptsGzip("*;q=0, gzip"));
+        assertFalse(EncodedJsonCache.acceptsGzip("identity"));
+        assertFalse(EncodedJsonCache.acceptsGzip(null));
+    }
+
+    @Test
+    void getAllActive_ShouldUseSeparateETagForGzipBody() {
+        // Given
+        EmployeeService employeeService = mock(EmployeeService.class);
+        when(employeeService.getVersion()).thenReturn(1L);
+        when(employeeService.getAllActive()).thenReturn(List.of());
+        EmployeeController controller = new EmployeeController(employeeService, new HttpCacheProperties(), cache);
+
+        // When - samme data hentet med og uden gzip
+        ResponseEntity<byte[]> gzip = controller.getAllActive(webRequest("gzip", null));
+        ResponseEntity<byte[]> identity = controller.getAllActive(webRequest(null, null));
+
+        // Then
+        String gzipETag = gzip.getHeaders().getETag();
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipETag.endsWith("-gz\""));
+        assertNotEquals(gzipETag, identity.getHeaders().getETag());
+
+        // Gzip ETag må ikke give 304 til en klient der ikke accepterer gzip
+        assertEquals(HttpStatus.OK, controller.getAllActive(webRequest(null, gzipETag)).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.getAllActive(webRequest("gzip", gzipETag)).getStatusCode());
+    }
+
+    private static ServletWebRequest webRequest(String acceptEncoding, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private List<String> load(String name) {
+        loads.incrementAndGet();
+        return List.of(name);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package dk.bilensven;
+
+import dk.bilensven.dto.ServiceDTO;
+import dk.bilensven.exception.PreconditionFailedException;
+import dk.bilensven.model.Service;
+import dk.bilensven.repository.ServiceRepository;
+import dk.bilensven.service.ServiceService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// @Version mod den rigtige database (H2 + V5 migration)
+@SpringBootTest
+class OptimisticLockingTest {
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void update_WithCurrentVersion_ShouldIssueSingleUpdate_AndRejectStaleVersion() {
+        // Given
+        ServiceDTO created = serviceService.create(service("Locking test service"));
+        serviceService.getById(created.getId());  // varm second-level cache
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        ServiceDTO edit = service("Locking test service v2");
+        edit.setVersion(created.getVersion());
+        ServiceDTO updated = serviceService.update(created.getId(), edit);
+
+        // Then - entity fra cachen, kun UPDATE ... WHERE version = ? rammer databasen
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // When & Then - samme (nu forældede) version igen
+        ServiceDTO stale = service("Locking test service v3");
+        stale.setVersion(created.getVersion());
+        assertThrows(PreconditionFailedException.class,
+                () -> serviceService.update(created.getId(), stale));
+        assertEquals("Locking test service v2", serviceService.getById(created.getId()).getName());
+    }
+
+    @Test
+    void flush_AfterConcurrentUpdate_ShouldFailOnVersionCheck() {
+        // Given
+        Long id = serviceService.create(service("Concurrent test service")).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate otherRequest = new TransactionTemplate(transactionManager);
+        otherRequest.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When - en anden request opdaterer mellem vores load og flush
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transaction.executeWithoutResult(status -> {
+            Service loaded = serviceRepository.findById(id).orElseThrow();
+            otherRequest.executeWithoutResult(other -> serviceService.update(id, service("Changed by someone else")));
+            loaded.setName("Changed by us");
+            serviceRepository.saveAndFlush(loaded);
+        }));
+
+        // Then
+        assertEquals("Changed by someone else", serviceService.getById(id).getName());
+    }
+
+    private static ServiceDTO service(String name) {
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName(name);
+        dto.setPrice(299.0);
+        return dto;
+    }
+}
@@ -0,0 +1,91 @@
+package dk.bilensven;
+
+import dk.bilensven.config.ReadReplicaDataSourceConfig;
+import dk.bilensven.repository.ServiceRepository;
+import dk.bilensven.service.SearchIndex;
+import dk.bilensven.service.ServiceCatalogCache;
+import dk.bilensven.service.ServiceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// To H2 in-memory databaser som primary og replica
+class ReadReplicaRoutingTest {
+
+    private final DataSource routing = ReadReplicaDataSourceConfig.routingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1"),
+            new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"));
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(routing);
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // When
+        String database = readOnly.execute(status -> currentDatabase());
+
+        // Then
+        assertEquals("REPLICA", database);
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        // Given
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // When
+        String database = readWrite.execute(status -> currentDatabase());
+
+        // Then
+        assertEquals("PRIMARY", database);
+    }
+
+    @Test
+    void catalogCacheMiss_ShouldLoadFromPrimary() {
+        // Given - repository med samme transaction-annoteringer som Spring Data's proxy læser
+        List<String> databases = new ArrayList<>();
+        ServiceRepository target = (ServiceRepository) Proxy.newProxyInstance(
+                ServiceRepository.class.getClassLoader(), new Class<?>[]{ServiceRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findActiveSummaries")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    databases.add(currentDatabase());
+                    return List.of();
+                });
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(ServiceRepository.class);
+        factory.addAdvice(new TransactionInterceptor(
+                (TransactionManager) transactionManager, new AnnotationTransactionAttributeSource()));
+        ServiceRepository repository = (ServiceRepository) factory.getProxy();
+
+        ServiceService serviceService = new ServiceService(repository, new ServiceCatalogCache(), new SearchIndex());
+
+        // When - første kald er et cache miss (ServiceService.getAllActive har ingen transaction selv)
+        serviceService.getAllActive();
+
+        // Then - snapshot caches uden TTL, så det må ikke komme fra en replica der halter efter writes
+        assertEquals(List.of("PRIMARY"), databases);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
@@ -0,0 +1,80 @@
+package dk.bilensven;
+
+import dk.bilensven.dto.SearchHit;
+import dk.bilensven.service.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.indexService(1L, "Olieskift", "Skift af motorolie og oliefilter");
+        index.indexService(2L, "Bremser", "Udskiftning af bremseklodser og skiver");
+        index.indexMessage(10L, "Søren Ærø", "soeren@example.dk", "Min bil larmer når jeg bremser");
+        index.indexMessage(11L, "Åse Hansen", "aase@example.dk", "Hvad koster et olieskift på en Škoda?");
+    }
+
+    @Test
+    void fold_ShouldMapDanishLettersAndStripAccents() {
+        assertEquals("soeren aeroe aase", SearchIndex.fold("Søren Ærø Åse"));
+        assertEquals("skoda cafe", SearchIndex.fold("Škoda café"));
+        assertEquals(List.of("aase", "example", "dk"), SearchIndex.tokenize("aase@example.dk"));
+    }
+
+    @Test
+    void search_ShouldMatchFoldedSpellingsAndPrefixes() {
+        // When
+        List<SearchHit> soeren = index.search("Soeren", null, 10);
+        List<SearchHit> aase = index.search("åse", null, 10);
+        List<SearchHit> prefix = index.search("olie", null, 10);
+
+        // Then
+        assertEquals(List.of(10L), ids(soeren));
+        assertEquals(List.of(11L), ids(aase));
+        // Titel-match (Olieskift) rangerer over match i beskedteksten
+        assertEquals(List.of(1L, 11L), ids(prefix));
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsAndFilterByType() {
+        // When
+        List<SearchHit> both = index.search("bremse bil", null, 10);
+        List<SearchHit> services = index.search("bremse", SearchHit.Type.SERVICE, 10);
+
+        // Then
+        assertEquals(List.of(10L), ids(both));
+        assertEquals(List.of(2L), ids(services));
+        assertEquals(SearchHit.Type.SERVICE, services.get(0).type());
+    }
+
+    @Test
+    void search_WithQuotedPhrase_ShouldRequireWordsInOrder() {
+        assertEquals(List.of(10L), ids(index.search("\"bil larmer\"", null, 10)));
+        assertTrue(index.search("\"larmer bil\"", null, 10).isEmpty());
+    }
+
+    @Test
+    void remove_AndReindex_ShouldUpdatePostings() {
+        // When
+        index.remove(SearchHit.Type.MESSAGE, 10L);
+        index.indexService(2L, "Dæk", "Dækskifte og afbalancering");
+
+        // Then
+        assertTrue(index.search("soeren", null, 10).isEmpty());
+        assertTrue(index.search("bremser", null, 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("daek", null, 10)));
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
@@ -0,0 +1,87 @@
+package dk.bilensven;
+
+import dk.bilensven.dto.ServiceDTO;
+import dk.bilensven.model.User;
+import dk.bilensven.repository.UserRepository;
+import dk.bilensven.service.ServiceService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Second-level cache mod den rigtige konfiguration (H2 + hibernate-cache.conf)
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getById_ShouldBeServedFromCache_AndSeeSoftDelete() {
+        // Given
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("Cache test service");
+        dto.setPrice(199.0);
+        Long id = serviceService.create(dto).getId();
+        statistics.clear();
+
+        // When
+        serviceService.getById(id);
+        serviceService.getById(id);
+
+        // Then
+        assertEquals(2, statistics.getDomainDataRegionStatistics("services").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // When: soft delete via save opdaterer cachen
+        serviceService.delete(id);
+
+        // Then
+        assertFalse(serviceService.getById(id).getActive());
+    }
+
+    @Test
+    void findByUsername_ShouldUseQueryCache_UntilUsersAreWritten() {
+        // Given
+        User user = new User();
+        user.setUsername("cache-test");
+        user.setPassword("hash-1");
+        userRepository.save(user);
+        statistics.clear();
+
+        // When
+        userRepository.findByUsername("cache-test");
+        userRepository.findByUsername("cache-test");
+
+        // Then
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // When: write til users ugyldiggør query resultatet
+        user.setPassword("hash-2");
+        userRepository.save(user);
+        User reloaded = userRepository.findByUsername("cache-test").orElseThrow();
+
+        // Then
+        assertEquals(2, statistics.getQueryCacheMissCount());
+        assertEquals(user.getPassword(), reloaded.getPassword());
+    }
+}
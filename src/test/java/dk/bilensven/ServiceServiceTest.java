@@ -1,19 +1,35 @@
 package dk.bilensven;
 
+import dk.bilensven.dto.BulkItemResult;
+import dk.bilensven.dto.BulkOperation;
+import dk.bilensven.dto.BulkResult;
+import dk.bilensven.dto.SearchHit;
 import dk.bilensven.dto.ServiceDTO;
+import dk.bilensven.dto.ServiceSummary;
 import dk.bilensven.exception.BusinessException;
+import dk.bilensven.exception.PreconditionFailedException;
+import dk.bilensven.exception.ValidationException;
+import dk.bilensven.model.Money;
 import dk.bilensven.model.Service;
 import dk.bilensven.repository.ServiceRepository;
+import dk.bilensven.service.SearchIndex;
+import dk.bilensven.service.ServiceCatalogCache;
 import dk.bilensven.service.ServiceService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,20 +41,23 @@ class ServiceServiceTest {
     @Mock
     private ServiceRepository serviceRepository;
 
+    @Spy
+    private ServiceCatalogCache catalogCache = new ServiceCatalogCache();
+
+    @Mock
+    private SearchIndex searchIndex;
+
     @InjectMocks
     private ServiceService serviceService;
 
     @Test
     void getAllActive_ShouldReturnOnlyActiveServices() {
         // Given
-        Service active = new Service();
-        active.setId(1L);
-        active.setName("Oil Change");
-        active.setPrice(299.99);
-        active.setActive(true);
-
-        // ✅ FIXED: Mock findByActiveTrue() instead of findAll()
-        when(serviceRepository.findByActiveTrue())
+        ServiceSummary active = new ServiceSummary(
+                1L, "Oil Change", null, 29999, true, null, null, null, 0L);
+
+        // Projektion direkte fra repository (ingen entities)
+        when(serviceRepository.findActiveSummaries())
                 .thenReturn(Arrays.asList(active));
 
         // When
@@ -47,7 +66,51 @@ class ServiceServiceTest {
         // Then
         assertEquals(1, result.size());
         assertTrue(result.get(0).getActive());
-        verify(serviceRepository).findByActiveTrue();  // ✅ Verify correct method
+        assertEquals(299.99, result.get(0).getPrice());
+        verify(serviceRepository).findActiveSummaries();
+    }
+
+    @Test
+    void getAllActive_SecondCall_ShouldBeServedFromCache() {
+        // Given
+        ServiceSummary cheap = new ServiceSummary(
+                1L, "Zebra Wash", null, 9900, true, null, null, null, 0L);
+
+        ServiceSummary expensive = new ServiceSummary(
+                2L, "Alpha Repair", null, 99900, true, null, null, null, 0L);
+
+        when(serviceRepository.findActiveSummaries())
+                .thenReturn(Arrays.asList(cheap, expensive));
+
+        // When
+        List<ServiceDTO> byName = serviceService.getAllActive();
+        List<ServiceDTO> byPrice = serviceService.getAllActiveSortedByPrice();
+
+        // Then
+        assertEquals("Alpha Repair", byName.get(0).getName());
+        assertEquals("Zebra Wash", byPrice.get(0).getName());
+        verify(serviceRepository, times(1)).findActiveSummaries();
+    }
+
+    @Test
+    void create_ShouldInvalidateCatalogCache() {
+        // Given
+        when(serviceRepository.findActiveSummaries()).thenReturn(List.of());
+        serviceService.getAllActive();
+
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("New Service");
+        dto.setPrice(100.0);
+
+        when(serviceRepository.saveAndFlush(any(Service.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        serviceService.create(dto);
+        serviceService.getAllActive();
+
+        // Then
+        verify(catalogCache).invalidate();
+        verify(serviceRepository, times(2)).findActiveSummaries();
     }
 
     @Test
@@ -58,16 +121,13 @@ class ServiceServiceTest {
         dto.setPrice(199.99);
         dto.setDescription("Test service");
 
-        when(serviceRepository.findByName(dto.getName()))
-                .thenReturn(Optional.empty());
-
         Service saved = new Service();
         saved.setId(1L);
         saved.setName(dto.getName());
-        saved.setPrice(dto.getPrice());
+        saved.setPriceOre(Money.toOre(dto.getPrice()));
         saved.setActive(true);
 
-        when(serviceRepository.save(any(Service.class)))
+        when(serviceRepository.saveAndFlush(any(Service.class)))
                 .thenReturn(saved);
 
         // When
@@ -77,7 +137,7 @@ class ServiceServiceTest {
         assertNotNull(result);
         assertEquals(199.99, result.getPrice());
         assertTrue(result.getActive());
-        verify(serviceRepository).save(any(Service.class));
+        verify(serviceRepository).saveAndFlush(any(Service.class));
     }
 
     @Test
@@ -87,15 +147,183 @@ class ServiceServiceTest {
         dto.setName("Existing Service");
         dto.setPrice(100.0);
 
-        Service existing = new Service();
-        existing.setName(dto.getName());
-
-        when(serviceRepository.findByName(dto.getName()))
-                .thenReturn(Optional.of(existing));
+        // Databasens UNIQUE constraint afviser navnet
+        when(serviceRepository.saveAndFlush(any(Service.class)))
+                .thenThrow(uniqueViolation());
 
         // When & Then
         assertThrows(BusinessException.class,
                 () -> serviceService.create(dto));
-        verify(serviceRepository, never()).save(any());
+        verify(catalogCache, never()).invalidate();
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void create_WithOtherIntegrityViolation_ShouldNotTranslate() {
+        // Given
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("Broken Service");
+        dto.setPrice(100.0);
+
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", null, ConstraintKind.NOT_NULL, "price_ore"));
+        when(serviceRepository.saveAndFlush(any(Service.class))).thenThrow(notNull);
+
+        // When & Then
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> serviceService.create(dto)));
+    }
+
+    @Test
+    void update_WithStaleVersion_ShouldThrowPreconditionFailed() {
+        // Given - en anden har gemt version 3, klienten redigerede version 2
+        Service stored = new Service();
+        stored.setId(5L);
+        stored.setName("Oil Change");
+        stored.setPriceOre(29999);
+        stored.setVersion(3L);
+
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("Oil Change Deluxe");
+        dto.setPrice(349.0);
+        dto.setVersion(2L);
+
+        when(serviceRepository.findById(5L)).thenReturn(Optional.of(stored));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class,
+                () -> serviceService.update(5L, dto));
+        assertEquals("Oil Change", stored.getName());
+        verify(serviceRepository, never()).saveAndFlush(any());
+        verify(catalogCache, never()).invalidate();
+    }
+
+    @Test
+    void create_WithLargeWholePrice_ShouldStoreExactOre() {
+        // Given - 1.0E7 blev tidligere afvist (String.valueOf gav "1.0E7")
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("Fleet Contract");
+        dto.setPrice(1.0E7);
+
+        when(serviceRepository.saveAndFlush(any(Service.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        ServiceDTO result = serviceService.create(dto);
+
+        // Then
+        assertEquals(1.0E7, result.getPrice());
+        verify(serviceRepository).saveAndFlush(argThat(service -> service.getPriceOre() == 1_000_000_000L));
+    }
+
+    @Test
+    void create_WithMoreThanTwoDecimals_ShouldThrowValidationException() {
+        // Given
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName("Odd Price");
+        dto.setPrice(19.999);
+
+        // When & Then
+        assertThrows(ValidationException.class,
+                () -> serviceService.create(dto));
+        verify(serviceRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void bulk_ShouldReportResultPerOperation_AndInvalidateCacheOnce() {
+        // Given
+        Service existing = new Service();
+        existing.setId(5L);
+        existing.setName("Oil Change");
+        existing.setPriceOre(29999);
+        existing.setActive(true);
+
+        ServiceDTO created = new ServiceDTO();
+        created.setName("Tire Change");
+        created.setPrice(499.0);
+        created.setImageUrl("https://example.com/tire.jpg");
+
+        ServiceDTO duplicate = new ServiceDTO();
+        duplicate.setName("Tire Change");
+        duplicate.setPrice(599.0);
+
+        List<BulkOperation<ServiceDTO>> operations = List.of(
+                new BulkOperation<>(BulkOperation.Action.CREATE, null, created),
+                new BulkOperation<>(BulkOperation.Action.CREATE, null, duplicate),
+                new BulkOperation<>(BulkOperation.Action.DELETE, 5L, null),
+                new BulkOperation<>(BulkOperation.Action.DELETE, 99L, null));
+
+        when(serviceRepository.findAllById(Set.of(5L, 99L))).thenReturn(List.of(existing));
+        when(serviceRepository.findByNameIn(Set.of("Tire Change"))).thenReturn(List.of());
+        List<Service> savedServices = new ArrayList<>();
+        when(serviceRepository.saveAllAndFlush(anyList())).thenAnswer(inv -> {
+            List<Service> saved = inv.getArgument(0);
+            saved.stream().filter(service -> service.getId() == null).forEach(service -> service.setId(6L));
+            savedServices.addAll(saved);
+            return saved;
+        });
+
+        // When
+        BulkResult result = serviceService.bulk(operations);
+
+        // Then
+        assertEquals(2, result.succeeded());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(201, 409, 204, 404), result.items().stream().map(BulkItemResult::status).toList());
+        assertEquals(6L, result.items().get(0).id());
+        assertFalse(existing.isActive());
+        // Billede følger med ved create (DataInitializer seeder via bulk)
+        assertEquals("https://example.com/tire.jpg", savedServices.get(0).getImageUrl());
+        verify(serviceRepository, times(1)).saveAllAndFlush(anyList());
+        verify(catalogCache, times(1)).invalidate();
+        verify(searchIndex).indexService(6L, "Tire Change", null);
+        verify(searchIndex).remove(SearchHit.Type.SERVICE, 5L);
+    }
+
+    @Test
+    void bulk_SwapNamesViaTemporaryName_ShouldSucceedInOneBatch() {
+        // Given - operationer udføres i rækkefølge, så et bytte går via et midlertidigt navn
+        Service first = service(1L, "Olieskift");
+        Service second = service(2L, "Dækskift");
+
+        when(serviceRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(serviceRepository.findByNameIn(Set.of("Midlertidig", "Olieskift", "Dækskift")))
+                .thenReturn(List.of(first, second));
+        when(serviceRepository.saveAllAndFlush(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        BulkResult result = serviceService.bulk(List.of(
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 1L, dto("Midlertidig")),
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 2L, dto("Olieskift")),
+                new BulkOperation<>(BulkOperation.Action.UPDATE, 1L, dto("Dækskift"))));
+
+        // Then - frigivne navne må genbruges, og hver omdøbning flushes før navnet tages igen
+        assertEquals(List.of(200, 200, 200), result.items().stream().map(BulkItemResult::status).toList());
+        assertEquals("Dækskift", first.getName());
+        assertEquals("Olieskift", second.getName());
+        verify(serviceRepository, times(3)).saveAllAndFlush(anyList());
+    }
+
+    private static Service service(Long id, String name) {
+        Service service = new Service();
+        service.setId(id);
+        service.setName(name);
+        service.setPriceOre(49900);
+        service.setActive(true);
+        service.setVersion(0L);
+        return service;
+    }
+
+    private static ServiceDTO dto(String name) {
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName(name);
+        dto.setPrice(499.0);
+        dto.setVersion(0L);
+        return dto;
+    }
+
+    // Som Spring oversætter en UNIQUE-overtrædelse fra Hibernate
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", null, ConstraintKind.UNIQUE, "uk_name"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package dk.bilensven;
+
+import dk.bilensven.model.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void nextId_ShouldBeUniqueAndIncreasing_EvenWhenSequenceOverflows() {
+        // Given - langt flere id'er end sekvensen (256) rummer pr. millisekund
+        int count = 100_000;
+        Set<Long> ids = new HashSet<>(count);
+        long previous = 0;
+
+        // When & Then
+        for (int i = 0; i < count; i++) {
+            long id = TimeOrderedIdGenerator.nextId();
+            assertTrue(id > previous, "ids must increase");
+            assertTrue(ids.add(id), "ids must be unique");
+            previous = id;
+        }
+    }
+
+    @Test
+    void nextId_ShouldBeSafeJavaScriptNumber() {
+        // When
+        long id = TimeOrderedIdGenerator.nextId();
+
+        // Then - Number.MAX_SAFE_INTEGER = 2^53 - 1
+        assertTrue(id > 0);
+        assertTrue(id < (1L << 53));
+    }
+}